@@ -2,28 +2,38 @@ package model;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.Journal;
 import persistence.Writable;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 // Stores a map of all accounts which holds the passenger's email as the key and the passenger as its value.
+// The map is concurrent, so logins read it without locking while signups and edits happen on other threads.
+// With a journal attached, signups, edits and deletions are also appended to the journal. They are applied
+// and numbered under one lock, so the journal replays them in the order they happened, and each waits outside
+// the lock for its entry to reach the disk. Bookings and cancellations go through the account's booking
+// coordinator instead, which journals them under the booked flight's lock stripe.
 public class Account implements Writable {
-    public final HashMap<String, Passenger> accounts = new HashMap<>();
+    private final ConcurrentHashMap<String, Passenger> accounts = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final BookingCoordinator coordinator = new BookingCoordinator();
+    private volatile Journal journal;
 
     // REQUIRES: email and password as string
     // EFFECTS: checks if given email is registered and
     //          whether the password matches the saved password for the passenger
     public int matchPassword(String email, String password) {
-        Passenger passenger;
-        String passengerPassword;
-        try {
-            passenger = accounts.get(email);
-            passengerPassword = passenger.getPassword();
-
-        } catch (NullPointerException nullPointerException) {
+        Passenger passenger = accounts.get(email);
+        if (passenger == null) {
             return -1;
         }
-        return password.equals(passengerPassword) ? 1 : 0;
+        return password.equals(passenger.getPassword()) ? 1 : 0;
     }
 
     // REQUIRES: email of passenger that already exists in accounts\
@@ -45,6 +55,32 @@ public class Account implements Writable {
                 + passenger.getLastName() + " to accounts database."));
     }
 
+    /*
+    REQUIRES: email that is not empty and passenger that is not null
+    MODIFIES: this
+    EFFECTS: adds the passenger to the list of accounts with the key being their email address if no
+             account uses that email yet; returns true if the passenger was added. The signup is numbered
+             before the passenger becomes visible, so none of their bookings can come before it in the journal.
+     */
+    public boolean signUp(String email, Passenger passenger) {
+        CompletableFuture<Long> written;
+        lock.lock();
+        try {
+            if (accounts.containsKey(email)) {
+                return false;
+            }
+            written = record(entry("signup").put("email", email).put("passenger", passenger.toJson()));
+            accounts.put(email, passenger);
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+        EventLog eventlog = EventLog.getInstance();
+        eventlog.logEvent(new Event("Added passenger " + passenger.getFirstName() + " "
+                + passenger.getLastName() + " to accounts database."));
+        return true;
+    }
+
     /*
     REQUIRES: email that is not empty and passenger that is not null
     MODIFIES: this
@@ -63,7 +99,19 @@ public class Account implements Writable {
     EFFECTS: deletes the given passenger from accounts
      */
     public void deletePassenger(String email) {
-        Passenger passenger = accounts.remove(email);
+        Passenger passenger;
+        CompletableFuture<Long> written;
+        lock.lock();
+        try {
+            passenger = accounts.remove(email);
+            if (passenger == null) {
+                return;
+            }
+            written = record(entry("delete").put("email", email));
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
         EventLog eventlog = EventLog.getInstance();
         eventlog.logEvent(new Event("Removed passenger " + passenger.getFirstName() + " "
                 + passenger.getLastName() + " from accounts database."));
@@ -73,10 +121,141 @@ public class Account implements Writable {
     REQUIRES: email that is currently in the accounts hashmap and the new passenger that hasn't
               changes their email
     MODIFIES: this
-    EFFECTS: replaces the old passenger with the new passenger
+    EFFECTS: replaces the old passenger with the new passenger and records their details in the journal
      */
     public void replacePassenger(String email, Passenger passenger) {
-        accounts.replace(email, passenger);
+        CompletableFuture<Long> written;
+        lock.lock();
+        try {
+            if (accounts.replace(email, passenger) == null) {
+                return;
+            }
+            JSONObject details = passenger.toJson();
+            details.remove("booked flights");
+            written = record(entry("edit").put("email", email).put("passenger", details));
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+    }
+
+    /*
+    REQUIRES: old and new email that are not empty
+    MODIFIES: this, passenger registered under the old email
+    EFFECTS: moves the passenger registered under the old email to the new email and updates their email
+             address; returns false and changes nothing if the old email isn't registered or another
+             account already uses the new email. The new email is claimed before the old one is released,
+             so no other signup can take it in between and the passenger is never missing from accounts.
+     */
+    public boolean changeEmail(String oldEmail, String newEmail) {
+        Passenger passenger;
+        CompletableFuture<Long> written;
+        lock.lock();
+        try {
+            passenger = accounts.get(oldEmail);
+            if (passenger == null || accounts.putIfAbsent(newEmail, passenger) != null) {
+                return false;
+            }
+            accounts.remove(oldEmail, passenger);
+            passenger.setEmailAddress(newEmail);
+            written = record(entry("change email").put("email", oldEmail).put("new email", newEmail));
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+        EventLog eventlog = EventLog.getInstance();
+        eventlog.logEvent(new Event("Changed email of passenger " + passenger.getFirstName() + " "
+                + passenger.getLastName() + " in accounts database."));
+        return true;
+    }
+
+    /*
+    REQUIRES: registered passenger, seat type in int (1-economy, 2-business, 3-first-class)
+    MODIFIES: this, passenger, flight
+    EFFECTS: books a seat of the given type on the flight for the passenger under the flight's lock stripe
+             and records it in the journal; returns false and changes nothing if the passenger already booked
+             the flight or the seat type is sold out
+     */
+    public boolean bookFlight(Passenger passenger, Flight flight, int seat) {
+        return coordinator.book(passenger, flight, seat);
+    }
+
+    /*
+    REQUIRES: registered passenger
+    MODIFIES: this, passenger, booked flight
+    EFFECTS: cancels the passenger's booking of the flight with the given id under the flight's lock stripe,
+             giving the seat to the flight's waitlist if anyone is waiting, and records it in the journal;
+             returns false and changes nothing if the passenger hasn't booked it
+     */
+    public boolean cancelFlight(Passenger passenger, UUID flightId) {
+        return coordinator.cancel(passenger, flightId);
+    }
+
+    // EFFECTS: returns the coordinator that books and cancels flights for these accounts
+    public BookingCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    /*
+    MODIFIES: this
+    EFFECTS: starts recording changes, including bookings, in the given journal, or stops recording them if
+             journal is null
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+        coordinator.setJournal(journal);
+    }
+
+    // EFFECTS: returns the number of registered passengers
+    public int size() {
+        return accounts.size();
+    }
+
+    // EFFECTS: returns true if there are no registered passengers
+    public boolean isEmpty() {
+        return accounts.isEmpty();
+    }
+
+    // EFFECTS: returns an unmodifiable live view of all registered passengers
+    public Collection<Passenger> getPassengers() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+
+    /*
+    EFFECTS: returns the result of the given capture, taken while no journaled change can happen, so it sees
+             exactly the changes up to the journal's last sequence number
+     */
+    public <T> T capture(Supplier<T> capture) {
+        lock.lock();
+        try {
+            return coordinator.capture(capture);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // EFFECTS: returns a new journal entry for the given kind of change
+    private static JSONObject entry(String op) {
+        return new JSONObject().put("op", op);
+    }
+
+    // REQUIRES: lock is held
+    // EFFECTS: queues the entry in the journal, if there is one, and returns the future of its write,
+    //          or null if there is no journal
+    private CompletableFuture<Long> record(JSONObject entry) {
+        Journal current = journal;
+        return current == null ? null : current.append(entry);
+    }
+
+    // EFFECTS: waits until the journal entry of the given write is on disk, if there was one
+    private static void awaitWritten(CompletableFuture<Long> written) {
+        if (written != null) {
+            written.join();
+        }
     }
 
     /*
@@ -0,0 +1,127 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Prefix tree of airport codes, and optionally airport names, for autocompleting airport searches.
+// Each code counts the scheduled departures from it, and every node counts the departures below it,
+// so lookups skip any part of the tree without departures and only return airports that have some.
+public class AirportTrie {
+
+    private final Node codes = new Node();
+    private final Node names = new Node();
+
+    // MODIFIES: this
+    // EFFECTS: counts one more departure from the airport with the given code
+    public void addDeparture(String code) {
+        Node node = codes;
+        node.departures++;
+        for (char c : normalize(code).toCharArray()) {
+            node = node.children.computeIfAbsent(c, k -> new Node());
+            node.departures++;
+        }
+        node.code = normalize(code);
+        node.ownDepartures++;
+    }
+
+    // REQUIRES: the airport has at least one departure counted
+    // MODIFIES: this
+    // EFFECTS: counts one less departure from the airport with the given code
+    public void removeDeparture(String code) {
+        Node node = codes;
+        node.departures--;
+        for (char c : normalize(code).toCharArray()) {
+            node = node.children.get(c);
+            node.departures--;
+        }
+        node.ownDepartures--;
+    }
+
+    // EFFECTS: returns the number of departures counted for the airport with the given code
+    public int getDepartures(String code) {
+        Node node = find(codes, normalize(code));
+        return node == null ? 0 : node.ownDepartures;
+    }
+
+    // REQUIRES: code and name that aren't empty
+    // MODIFIES: this
+    // EFFECTS: lets the airport with the given code also be found by a prefix of its name
+    public void addAirportName(String code, String name) {
+        Node node = names;
+        for (char c : normalize(name).toCharArray()) {
+            node = node.children.computeIfAbsent(c, k -> new Node());
+        }
+        node.namedAirports.add(normalize(code));
+    }
+
+    // EFFECTS: returns up to limit airport codes with at least one departure whose code or name starts
+    //          with the given prefix, ignoring case. Code matches come first, each in alphabetical order.
+    public List<String> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        Set<String> found = new LinkedHashSet<>();
+        collectCodes(find(codes, normalized), found, limit);
+        if (found.size() < limit) {
+            Set<String> named = new HashSet<>();
+            collectNames(find(names, normalized), named);
+            named.stream().filter(code -> getDepartures(code) > 0).sorted()
+                    .limit(limit - found.size()).forEach(found::add);
+        }
+        return new ArrayList<>(found);
+    }
+
+    // MODIFIES: found
+    // EFFECTS: adds the codes under node with departures to found in alphabetical order until it holds limit
+    private static void collectCodes(Node node, Set<String> found, int limit) {
+        if (node == null || node.departures <= 0 || found.size() >= limit) {
+            return;
+        }
+        if (node.ownDepartures > 0) {
+            found.add(node.code);
+        }
+        for (Node child : node.children.values()) {
+            collectCodes(child, found, limit);
+        }
+    }
+
+    // MODIFIES: found
+    // EFFECTS: adds the codes of every name under node to found
+    private static void collectNames(Node node, Set<String> found) {
+        if (node == null) {
+            return;
+        }
+        found.addAll(node.namedAirports);
+        for (Node child : node.children.values()) {
+            collectNames(child, found);
+        }
+    }
+
+    // EFFECTS: returns the node reached by following key from root, or null if there is none
+    private static Node find(Node root, String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        return node;
+    }
+
+    // EFFECTS: returns the text in upper case
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    // A node of the trie. In the code trie it counts the departures from the airport whose code ends here
+    // and the departures of all airports below it; in the name trie it holds the airports whose name ends here.
+    private static class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private final Set<String> namedAirports = new HashSet<>();
+        private String code;
+        private int ownDepartures;
+        private int departures;
+    }
+}
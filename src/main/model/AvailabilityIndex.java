@@ -0,0 +1,112 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+// Bitsets of the flights that still have seats, one bit per flight schedule row and one bitset per
+// seat type, plus one for flights with any seat left. Finding the flights a passenger can still book
+// is then a word-wise AND-NOT of the passenger's booked flights out of these bits.
+// Seat changes from booking threads only mark their row as changed, without locking, so bookings on
+// unrelated flights never wait on each other here; the bits of changed rows are recomputed from their
+// flights under this index's monitor before the bits are next read.
+public class AvailabilityIndex {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final BitSet economy = new BitSet();
+    private final BitSet business = new BitSet();
+    private final BitSet firstClass = new BitSet();
+    private final BitSet any = new BitSet();
+    private final List<Flight> flights = new ArrayList<>();
+    private final ChangedRows changed = new ChangedRows(INITIAL_CAPACITY);
+
+    // REQUIRES: 0 <= row <= number of rows in use
+    // MODIFIES: this
+    // EFFECTS: records which seat types of the flight in the given row are still available, adding the row
+    //          if it is one past the last row in use
+    public synchronized void update(int row, Flight flight) {
+        if (row == flights.size()) {
+            flights.add(flight);
+            changed.ensureCapacity(flights.size());
+        } else {
+            flights.set(row, flight);
+        }
+        refresh(row);
+    }
+
+    // REQUIRES: 0 <= row < number of rows in use
+    // MODIFIES: this
+    // EFFECTS: marks the given row's flight as changed without locking, so its bits are recomputed before
+    //          they are next read
+    public void markChanged(int row) {
+        changed.mark(row);
+    }
+
+    // REQUIRES: row and last >= 0, where last is the highest row in use
+    // MODIFIES: this
+    // EFFECTS: moves the bits of the last row into the given row and clears the last row
+    public synchronized void remove(int row, int last) {
+        refreshChanged();
+        move(economy, row, last);
+        move(business, row, last);
+        move(firstClass, row, last);
+        move(any, row, last);
+        Flight moved = flights.remove(last);
+        if (row != last) {
+            flights.set(row, moved);
+        }
+    }
+
+    // EFFECTS: returns the rows of flights with any seat available that aren't in booked
+    public synchronized BitSet availableExcept(BitSet booked) {
+        refreshChanged();
+        BitSet available = (BitSet) any.clone();
+        available.andNot(booked);
+        return available;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the rows of flights with the given seat type available that aren't in booked
+    public synchronized BitSet availableExcept(int seat, BitSet booked) {
+        refreshChanged();
+        BitSet available = (BitSet) seatBits(seat).clone();
+        available.andNot(booked);
+        return available;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the bits of the rows marked as changed from their flights
+    private void refreshChanged() {
+        changed.drain(flights.size(), this::refresh);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: recomputes the bits of the given row from its flight
+    private void refresh(int row) {
+        Flight flight = flights.get(row);
+        economy.set(row, flight.getAvailableEconomySeats() > 0);
+        business.set(row, flight.getAvailableBusinessSeats() > 0);
+        firstClass.set(row, flight.getAvailableFirstClassSeats() > 0);
+        any.set(row, !flight.isFull());
+    }
+
+    // EFFECTS: returns the bits of the given seat type
+    private BitSet seatBits(int seat) {
+        switch (seat) {
+            case 1:
+                return economy;
+            case 2:
+                return business;
+            default:
+                return firstClass;
+        }
+    }
+
+    // MODIFIES: bits
+    // EFFECTS: sets the bit of row to the bit of last and clears the bit of last
+    private static void move(BitSet bits, int row, int last) {
+        bits.set(row, bits.get(last));
+        bits.clear(last);
+    }
+}
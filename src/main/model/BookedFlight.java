@@ -3,18 +3,28 @@ package model;
 import org.json.JSONObject;
 import persistence.Writable;
 
-// Booked flights are flights booked by passengers that holds their booked seat type and flight
+// Booked flights are flights booked by passengers that holds their booked seat type, flight
+// and assigned seat number
 public class BookedFlight implements Writable {
 
     private final int seat;
     private final Flight flight;
+    private final String seatNumber;
 
     // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
     //           and flight
-    // EFFECTS: Constructs a booked flight with given seat and flight
+    // EFFECTS: Constructs a booked flight with given seat and flight and no assigned seat number
     public BookedFlight(int seat, Flight flight) {
+        this(seat, flight, null);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    //           and flight
+    // EFFECTS: Constructs a booked flight with given seat, flight and seat number (null if no seat was assigned)
+    public BookedFlight(int seat, Flight flight, String seatNumber) {
         this.flight = flight;
         this.seat = seat;
+        this.seatNumber = seatNumber;
     }
 
     public int getSeat() {
@@ -25,14 +35,21 @@ public class BookedFlight implements Writable {
         return flight;
     }
 
-    // EFFECTS: converts a booked flight into a json object
+    public String getSeatNumber() {
+        return seatNumber;
+    }
+
+    // EFFECTS: converts a booked flight into a json object that refers to its flight by uuid only,
+    //          since the flight itself is saved with the flight schedule
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
 
         json.put("uuid", flight.getId());
         json.put("seat", seat);
-        json.put("flight", flight.toJson());
+        if (seatNumber != null) {
+            json.put("seat number", seatNumber);
+        }
 
         return json;
     }
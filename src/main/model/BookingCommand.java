@@ -0,0 +1,30 @@
+package model;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// One slot of the BookingEngine ring buffer. Slots are allocated once and reused for every command
+// that lands on them; a slot's fields are only read by the consumer after its sequence is published.
+class BookingCommand {
+
+    static final int BOOK = 0;
+    static final int CANCEL = 1;
+
+    volatile long published = -1;
+
+    int type;
+    Passenger passenger;
+    Flight flight;
+    UUID flightId;
+    int seat;
+    CompletableFuture<Boolean> result;
+
+    // MODIFIES: this
+    // EFFECTS: forgets the command's references so the slot doesn't keep passengers or flights alive
+    void clear() {
+        passenger = null;
+        flight = null;
+        flightId = null;
+        result = null;
+    }
+}
@@ -0,0 +1,406 @@
+package model;
+
+import org.json.JSONObject;
+import persistence.Journal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Makes booking and cancelling atomic across a passenger's booked flights and the flight's seats.
+// Each flight id maps to one of a fixed set of lock stripes, so bookings on unrelated flights only
+// share a lock when their ids land on the same stripe. Operations that touch several flights take
+// their stripes in increasing stripe order, so they can never deadlock with each other.
+// With a journal attached, every booking and cancellation is appended to it while the flight's stripe is
+// still held, so the entries of each flight are numbered in the order they happened; each operation then
+// waits outside the stripe for its entries to reach the disk.
+// Seats taken for seat holds are counted per flight, under the same stripe as the flight's seats, since holds
+// aren't journaled and don't outlive the process: a snapshot counts them as still available.
+public class BookingCoordinator {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private volatile Journal journal;
+
+    // seats of each type taken from a flight for holds that haven't ended yet, by flight id; only changed
+    // while the flight's stripe is held
+    private final Map<UUID, int[]> heldSeats = new ConcurrentHashMap<>();
+
+    // EFFECTS: constructs a coordinator with the default number of lock stripes
+    public BookingCoordinator() {
+        this(DEFAULT_STRIPES);
+    }
+
+    // REQUIRES: stripes >= 1
+    // EFFECTS: constructs a coordinator with at least the given number of lock stripes,
+    //          rounded up to a power of two
+    public BookingCoordinator(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    public Journal getJournal() {
+        return journal;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts recording bookings in the given journal, or stops recording them if journal is null
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: passenger, flight
+    // EFFECTS: atomically takes a seat on the flight and adds it to the passenger's booked flights;
+    //          returns false and changes nothing if the passenger already booked the flight or the
+    //          seat type is sold out
+    public boolean book(Passenger passenger, Flight flight, int seat) {
+        CompletableFuture<Long> written = submitBook(passenger, flight, seat);
+        if (written == null) {
+            return false;
+        }
+        awaitWritten(written);
+        return true;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), at least one passenger
+    // MODIFIES: passengers, flight
+    // EFFECTS: atomically takes one seat of the given type on the flight for every passenger and adds the
+    //          flight to each of their booked flights, seated next to each other if possible, logging a single
+    //          event for the whole group;
+    //          returns false and changes nothing if a passenger appears twice or already booked the flight,
+    //          or if there aren't enough seats left for everyone
+    public boolean bookGroup(List<Passenger> passengers, Flight flight, int seat) {
+        CompletableFuture<Long> written = null;
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            Set<Passenger> group = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Passenger passenger : passengers) {
+                if (!group.add(passenger) || passenger.hasFlight(flight)) {
+                    return false;
+                }
+            }
+            if (!flight.tryBook(seat, passengers.size())) {
+                return false;
+            }
+            List<String> seatNumbers = flight.getSeatMap().assignAdjacent(seat, passengers.size());
+            for (int i = 0; i < passengers.size(); i++) {
+                String seatNumber = seatNumbers != null ? seatNumbers.get(i) : flight.getSeatMap().assign(seat);
+                written = attach(passengers.get(i), new BookedFlight(seat, flight, seatNumber));
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+        EventLog.getInstance().logEvent(new Event("Added Flight " + flight.getAirlineCode()
+                + flight.getFlightNumber() + " to the booked flights of a group of "
+                + passengers.size() + " passengers."));
+        return true;
+    }
+
+    // MODIFIES: passenger, booked flight
+    // EFFECTS: atomically removes the flight with the given id from the passenger's booked flights and
+    //          gives its seat back; returns false and changes nothing if the passenger hasn't booked it
+    public boolean cancel(Passenger passenger, UUID flightId) {
+        CompletableFuture<Long> written = submitCancel(passenger, flightId);
+        if (written == null) {
+            return false;
+        }
+        awaitWritten(written);
+        return true;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: passenger, flight
+    // EFFECTS: books the passenger a seat of the given type if one is available, otherwise adds them to the
+    //          back of the flight's waitlist for that seat type to be booked automatically when a seat is given
+    //          back; returns false and does nothing if the passenger already booked the flight
+    public boolean joinWaitlist(Passenger passenger, Flight flight, int seat) {
+        CompletableFuture<Long> written = null;
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            if (passenger.hasFlight(flight)) {
+                return false;
+            }
+            flight.addToWaitlist(seat, passenger);
+            while (flight.hasWaiting(seat) && flight.tryBook(seat)) {
+                written = latest(written, giveBack(flight, seat));
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+        return true;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), a seat of that type taken from the
+    //           flight without being added to anyone's booked flights
+    // MODIFIES: flight, first waitlisted passenger
+    // EFFECTS: gives the seat back to the flight under its stripe, promoting the first waitlisted passenger for
+    //          that seat type onto it if there is one
+    public void release(Flight flight, int seat) {
+        CompletableFuture<Long> written;
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            written = giveBack(flight, seat);
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: passenger, booked flight, flight
+    // EFFECTS: atomically moves the passenger from the booked flight with id fromId onto the given flight;
+    //          returns false and changes nothing if the passenger hasn't booked fromId, has already booked
+    //          the new flight, or the seat type is sold out on the new flight
+    public boolean changeFlight(Passenger passenger, UUID fromId, Flight flight, int seat) {
+        CompletableFuture<Long> written;
+        int[] order = lockOrder(fromId, flight.getId());
+        lockAll(order);
+        try {
+            if (passenger.getBookedFlight(fromId) == null || passenger.hasFlight(flight)
+                    || !passenger.addBookedFlight(flight, seat)) {
+                return false;
+            }
+            written = record("book", passenger, passenger.getBookedFlight(flight.getId()));
+            written = latest(written, detach(passenger, fromId));
+        } finally {
+            unlockAll(order);
+        }
+        awaitWritten(written);
+        return true;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of seats of the given type taken from the flight for holds that haven't ended
+    public int getHeldSeats(Flight flight, int seat) {
+        int[] held = heldSeats.get(flight.getId());
+        return held == null ? 0 : held[seat - 1];
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this, flight
+    // EFFECTS: takes a seat of the given type from the flight for a hold under the flight's stripe and counts it
+    //          as held; returns false and changes nothing if the seat type is sold out
+    boolean hold(Flight flight, int seat) {
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            if (!flight.tryBook(seat)) {
+                return false;
+            }
+            heldSeats.computeIfAbsent(flight.getId(), id -> new int[3])[seat - 1]++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // REQUIRES: the stripe of the flight is held by the current thread, a seat of the given type held on the flight
+    // MODIFIES: this
+    // EFFECTS: stops counting one seat of the given type as held on the flight, leaving the seat taken
+    void unhold(Flight flight, int seat) {
+        int[] held = heldSeats.get(flight.getId());
+        held[seat - 1]--;
+        if (held[0] == 0 && held[1] == 0 && held[2] == 0) {
+            heldSeats.remove(flight.getId());
+        }
+    }
+
+    // REQUIRES: a seat of the given type held on the flight
+    // MODIFIES: this, flight, first waitlisted passenger
+    // EFFECTS: stops counting the held seat and gives it back under the flight's stripe, promoting the first
+    //          waitlisted passenger for that seat type onto it if there is one
+    void releaseHeld(Flight flight, int seat) {
+        CompletableFuture<Long> written;
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            unhold(flight, seat);
+            written = giveBack(flight, seat);
+        } finally {
+            lock.unlock();
+        }
+        awaitWritten(written);
+    }
+
+    // EFFECTS: returns the result of the given capture, taken while every stripe is held so that no booking
+    //          can happen and the journal's last sequence number covers exactly the bookings it sees
+    public <T> T capture(Supplier<T> capture) {
+        int[] order = new int[stripes.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        lockAll(order);
+        try {
+            return capture.get();
+        } finally {
+            unlockAll(order);
+        }
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: passenger, flight
+    // EFFECTS: atomically takes a seat on the flight, adds it to the passenger's booked flights and queues the
+    //          booking in the journal, without waiting for the write; returns the future of the write, an
+    //          already completed future if there is no journal, or null if nothing changed because the
+    //          passenger already booked the flight or the seat type is sold out
+    CompletableFuture<Long> submitBook(Passenger passenger, Flight flight, int seat) {
+        ReentrantLock lock = lockFor(flight.getId());
+        lock.lock();
+        try {
+            if (passenger.hasFlight(flight) || !passenger.addBookedFlight(flight, seat)) {
+                return null;
+            }
+            return written(record("book", passenger, passenger.getBookedFlight(flight.getId())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // MODIFIES: passenger, booked flight, first waitlisted passenger
+    // EFFECTS: atomically removes the flight with the given id from the passenger's booked flights, queues the
+    //          cancellation in the journal and gives the seat back, promoting the first waitlisted passenger onto
+    //          it if there is one, without waiting for the writes; returns the future of the last write, an
+    //          already completed future if there is no journal, or null if the passenger hasn't booked it
+    CompletableFuture<Long> submitCancel(Passenger passenger, UUID flightId) {
+        ReentrantLock lock = lockFor(flightId);
+        lock.lock();
+        try {
+            if (passenger.getBookedFlight(flightId) == null) {
+                return null;
+            }
+            return written(detach(passenger, flightId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // EFFECTS: returns the lock stripe of the given flight id
+    ReentrantLock lockFor(UUID flightId) {
+        return stripes[stripeOf(flightId)];
+    }
+
+    // EFFECTS: returns the distinct stripes of the given flight ids in increasing order
+    int[] lockOrder(UUID... flightIds) {
+        return Arrays.stream(flightIds).mapToInt(this::stripeOf).distinct().sorted().toArray();
+    }
+
+    // REQUIRES: the stripe of the booking's flight is held by the current thread, and the passenger hasn't
+    //           booked its flight
+    // MODIFIES: passenger
+    // EFFECTS: adds the booking to the passenger's booked flights and queues it in the journal; returns the
+    //          future of its write, or null if there is no journal
+    CompletableFuture<Long> attach(Passenger passenger, BookedFlight booking) {
+        passenger.attachBookedFlight(booking);
+        return record("book", passenger, booking);
+    }
+
+    // EFFECTS: waits until the journal entry of the given write is on disk, if there was one. Entries are
+    //          written in order, so waiting for the last entry of an operation waits for all of them.
+    static void awaitWritten(CompletableFuture<Long> written) {
+        if (written != null) {
+            written.join();
+        }
+    }
+
+    // REQUIRES: the stripe of the flight is held by the current thread, and the passenger booked the flight
+    // MODIFIES: passenger, flight, first waitlisted passenger
+    // EFFECTS: removes the flight with the given id from the passenger's booked flights, queues the
+    //          cancellation in the journal and gives the seat back; returns the future of the last write,
+    //          or null if there is no journal
+    private CompletableFuture<Long> detach(Passenger passenger, UUID flightId) {
+        BookedFlight booking = passenger.detachBookedFlight(flightId);
+        CompletableFuture<Long> written = record("cancel", passenger, booking);
+        return latest(written, giveBack(booking.getFlight(), booking.getSeat()));
+    }
+
+    // REQUIRES: the stripe of the flight is held by the current thread, seat type in int (1-economy,
+    //           2-business, 3-first-class)
+    // MODIFIES: flight, first waitlisted passenger
+    // EFFECTS: hands the seat to the first waitlisted passenger for its type who hasn't booked the flight
+    //          since joining, queueing the booking in the journal, or gives it back to the flight's available
+    //          seats if there is no such passenger; returns the future of the write, or null if nothing was
+    //          written
+    private CompletableFuture<Long> giveBack(Flight flight, int seat) {
+        Passenger passenger = flight.pollWaitlist(seat);
+        if (passenger == null) {
+            flight.release(seat);
+            return null;
+        }
+        CompletableFuture<Long> written = attach(passenger,
+                new BookedFlight(seat, flight, flight.getSeatMap().assign(seat)));
+        EventLog.getInstance().logEvent(new Event("Promoted Passenger " + passenger.getFirstName() + " "
+                + passenger.getLastName() + " from the waitlist of Flight " + flight.getAirlineCode()
+                + flight.getFlightNumber() + " to passenger's booked flights."));
+        return written;
+    }
+
+    // REQUIRES: the stripe of the booking's flight is held by the current thread
+    // EFFECTS: queues the booking or cancellation of the passenger in the journal, if there is one, with the
+    //          exact seat number it holds; returns the future of its write, or null if there is no journal
+    private CompletableFuture<Long> record(String op, Passenger passenger, BookedFlight booking) {
+        Journal current = journal;
+        if (current == null) {
+            return null;
+        }
+        return current.append(new JSONObject().put("op", op).put("id", passenger.getId())
+                .put("email", passenger.getEmailAddress()).put("flight", booking.getFlight().getId())
+                .put("seat", booking.getSeat()).put("seat number", booking.getSeatNumber()));
+    }
+
+    // EFFECTS: returns the given write, or an already completed future if nothing was written
+    private static CompletableFuture<Long> written(CompletableFuture<Long> write) {
+        return write != null ? write : CompletableFuture.completedFuture(-1L);
+    }
+
+    // EFFECTS: returns the later of two writes, where later is null if it wrote nothing
+    private static CompletableFuture<Long> latest(CompletableFuture<Long> earlier, CompletableFuture<Long> later) {
+        return later != null ? later : earlier;
+    }
+
+    // EFFECTS: returns the index of the stripe the given flight id maps to
+    private int stripeOf(UUID flightId) {
+        int hash = flightId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: locks the given stripes in the given order
+    private void lockAll(int[] order) {
+        for (int stripe : order) {
+            stripes[stripe].lock();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: unlocks the given stripes in reverse order
+    private void unlockAll(int[] order) {
+        for (int i = order.length - 1; i >= 0; i--) {
+            stripes[order[i]].unlock();
+        }
+    }
+}
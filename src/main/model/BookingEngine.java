@@ -0,0 +1,237 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Applies bookings and cancellations on a single writer thread instead of under locks.
+// Producers claim the next sequence number, fill the matching slot of a pre-allocated ring buffer and
+// publish it; one consumer thread applies the published commands to flights and passengers strictly in
+// sequence order, a batch at a time, and completes each command's future with its result. Commands can be
+// queued while the engine isn't running as long as the ring buffer has room; once it is full, producers back
+// off until the consumer makes room, or are turned away if there is no consumer to make it.
+// Each command is applied through a BookingCoordinator, so a cancellation promotes the flight's waitlist and
+// every change is queued in the coordinator's journal, if it has one; the consumer never waits for those writes
+// itself, and each command's future only completes once its entries are on disk.
+public class BookingEngine {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private final BookingCommand[] ring;
+    private final int mask;
+    private final int batchSize;
+    private final BookingCoordinator coordinator;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread consumer;
+
+    // EFFECTS: constructs an engine with the default ring buffer capacity and batch size and its own coordinator
+    public BookingEngine() {
+        this(DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    // REQUIRES: capacity >= 1, batchSize >= 1
+    // EFFECTS: constructs an engine with its own coordinator whose ring buffer holds at least the given number of
+    //          commands, rounded up to a power of two, and that applies at most batchSize commands per batch
+    public BookingEngine(int capacity, int batchSize) {
+        this(capacity, batchSize, new BookingCoordinator());
+    }
+
+    // REQUIRES: capacity >= 1, batchSize >= 1
+    // EFFECTS: constructs an engine that applies commands through the given coordinator, whose ring buffer holds
+    //          at least the given number of commands, rounded up to a power of two, and that applies at most
+    //          batchSize commands per batch
+    public BookingEngine(int capacity, int batchSize, BookingCoordinator coordinator) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new BookingCommand[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new BookingCommand();
+        }
+        this.mask = size - 1;
+        this.batchSize = batchSize;
+        this.coordinator = coordinator;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // EFFECTS: returns the number of commands applied so far
+    public long getProcessed() {
+        return consumed.get();
+    }
+
+    // EFFECTS: returns the number of batches the consumer has applied so far
+    public long getBatches() {
+        return batches.get();
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: queues a booking of a seat on the flight for the passenger; the returned future completes
+    //          with false if the passenger already booked the flight or the seat type is sold out.
+    //          Waits for room if the ring buffer is full, or completes exceptionally with
+    //          RejectedExecutionException if it is full and the engine isn't running.
+    public CompletableFuture<Boolean> book(Passenger passenger, Flight flight, int seat) {
+        return publish(BookingCommand.BOOK, passenger, flight, flight.getId(), seat);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues the removal of the flight with the given id from the passenger's booked flights, handing
+    //          its seat to the first passenger on the flight's waitlist if there is one; the returned future
+    //          completes with false if the passenger hasn't booked it.
+    //          Waits for room if the ring buffer is full, or completes exceptionally with
+    //          RejectedExecutionException if it is full and the engine isn't running.
+    public CompletableFuture<Boolean> cancel(Passenger passenger, UUID flightId) {
+        return publish(BookingCommand.CANCEL, passenger, null, flightId, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts the consumer thread applying queued commands, if it isn't running
+    public synchronized void start() {
+        if (consumer == null) {
+            running = true;
+            consumer = new Thread(this::consume, "booking-engine");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the consumer thread once every command published before this call has been applied
+    public synchronized void stop() throws InterruptedException {
+        if (consumer != null) {
+            running = false;
+            LockSupport.unpark(consumer);
+            consumer.join();
+            consumer = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: claims the next slot once it is free, fills it with the command and publishes it to the consumer.
+    //          While the ring buffer is full, backs off and retries as long as the engine is running, and
+    //          returns a future failed with RejectedExecutionException, claiming nothing, once it isn't.
+    private CompletableFuture<Boolean> publish(int type, Passenger passenger, Flight flight, UUID flightId,
+                                               int seat) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long sequence;
+        int idle = 0;
+        while (true) {
+            sequence = claimed.get();
+            if (sequence - consumed.get() < ring.length) {
+                if (claimed.compareAndSet(sequence, sequence + 1)) {
+                    break;
+                }
+            } else if (!running) {
+                result.completeExceptionally(new RejectedExecutionException("Booking engine is full and not running."));
+                return result;
+            } else {
+                idle = waitForWork(idle);
+            }
+        }
+        BookingCommand command = ring[(int) sequence & mask];
+        command.type = type;
+        command.passenger = passenger;
+        command.flight = flight;
+        command.flightId = flightId;
+        command.seat = seat;
+        command.result = result;
+        command.published = sequence;
+        return result;
+    }
+
+    // MODIFIES: this, passengers and flights of the queued commands
+    // EFFECTS: applies published commands in sequence order until stopped and nothing is left to apply
+    private void consume() {
+        long next = consumed.get();
+        List<CompletableFuture<Long>> writes = new ArrayList<>(batchSize);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(batchSize);
+        int idle = 0;
+        while (running || next < claimed.get()) {
+            int count = 0;
+            while (count < batchSize && ring[(int) (next + count) & mask].published == next + count) {
+                BookingCommand command = ring[(int) (next + count) & mask];
+                CompletableFuture<Boolean> future = command.result;
+                CompletableFuture<Long> written = null;
+                try {
+                    written = apply(command);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                    future = null;
+                }
+                writes.add(written);
+                futures.add(future);
+                command.clear();
+                count++;
+            }
+            if (count == 0) {
+                idle = waitForWork(idle);
+                continue;
+            }
+            idle = 0;
+            next += count;
+            consumed.set(next);
+            batches.incrementAndGet();
+            for (int i = 0; i < count; i++) {
+                complete(futures.get(i), writes.get(i));
+            }
+            writes.clear();
+            futures.clear();
+        }
+    }
+
+    // MODIFIES: passenger, flight of the command, first waitlisted passenger of a cancelled flight
+    // EFFECTS: applies the command through the coordinator and returns the future of its journal write,
+    //          or null if it changed nothing
+    private CompletableFuture<Long> apply(BookingCommand command) {
+        if (command.type == BookingCommand.BOOK) {
+            return coordinator.submitBook(command.passenger, command.flight, command.seat);
+        }
+        return coordinator.submitCancel(command.passenger, command.flightId);
+    }
+
+    // MODIFIES: future
+    // EFFECTS: completes the command's future with false if it changed nothing, or with true once its journal
+    //          write is on disk, failing it if the write failed; does nothing if the future already failed
+    private static void complete(CompletableFuture<Boolean> future, CompletableFuture<Long> written) {
+        if (future == null) {
+            return;
+        }
+        if (written == null) {
+            future.complete(false);
+            return;
+        }
+        written.whenComplete((sequence, failure) -> {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(true);
+            }
+        });
+    }
+
+    // EFFECTS: backs off while there is nothing to do, spinning briefly, then yielding, then parking for a
+    //          bounded time; returns the number of consecutive idle rounds so far
+    private static int waitForWork(int idle) {
+        if (idle < 100) {
+            Thread.onSpinWait();
+        } else if (idle < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return idle + 1;
+    }
+}
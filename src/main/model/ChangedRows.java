@@ -0,0 +1,80 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+// Lock-free set of the rows whose copied data is out of date, one bit per row. Booking threads mark the
+// rows of the flights they changed without taking any lock; the owner of the copy drains the set under
+// its own lock before reading the copy, re-reading each drained row from its flight. A row's bit is
+// cleared before the row is re-read, so a change made while draining marks the row again instead of
+// being lost.
+class ChangedRows {
+
+    private volatile AtomicLongArray words;
+
+    // REQUIRES: capacity >= 1
+    // EFFECTS: constructs an empty set with room for rows 0 to capacity - 1
+    ChangedRows(int capacity) {
+        words = new AtomicLongArray(wordsFor(capacity));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the given row as changed; rows the set has no room for are ignored, since they
+    //          were never handed out
+    void mark(int row) {
+        AtomicLongArray current;
+        do {
+            current = words;
+            int word = row >>> 6;
+            if (row < 0 || word >= current.length()) {
+                return;
+            }
+            long bit = 1L << row;
+            current.getAndAccumulate(word, bit, (a, b) -> a | b);
+        } while (current != words);
+    }
+
+    // REQUIRES: called by the owner of the copy, holding its lock
+    // MODIFIES: this
+    // EFFECTS: clears every marked row below limit and passes it to refresh
+    void drain(int limit, IntConsumer refresh) {
+        AtomicLongArray current = words;
+        int used = Math.min(current.length(), wordsFor(limit));
+        for (int word = 0; word < used; word++) {
+            if (current.get(word) == 0) {
+                continue;
+            }
+            long bits = current.getAndSet(word, 0);
+            while (bits != 0) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (row < limit) {
+                    refresh.accept(row);
+                }
+            }
+        }
+    }
+
+    // REQUIRES: called by the owner of the copy, holding its lock
+    // MODIFIES: this
+    // EFFECTS: makes room for rows 0 to capacity - 1, keeping the rows marked so far
+    void ensureCapacity(int capacity) {
+        AtomicLongArray current = words;
+        int needed = wordsFor(capacity);
+        if (needed <= current.length()) {
+            return;
+        }
+        AtomicLongArray bigger = new AtomicLongArray(Math.max(needed, current.length() * 2));
+        words = bigger;
+        // merged after publishing, so a row marked in the old words either shows up here or is marked
+        // again in the new words by mark's re-check
+        for (int word = 0; word < current.length(); word++) {
+            bigger.getAndAccumulate(word, current.get(word), (a, b) -> a | b);
+        }
+    }
+
+    // EFFECTS: returns the number of words needed to hold rows 0 to rows - 1
+    private static int wordsFor(int rows) {
+        return Math.max(1, (rows + 63) >>> 6);
+    }
+}
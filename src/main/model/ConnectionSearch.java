@@ -0,0 +1,130 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Searches a flight schedule for direct and connecting itineraries between two airports.
+// The schedule's departure index acts as a time-expanded route graph: every flight is a node,
+// and a flight connects to each departure from its arrival airport that leaves within the
+// allowed connection window. Since the index is updated by FlightSchedule.addFlight, new flights
+// are picked up by the next search without rebuilding anything.
+// The search is best-first on total travel time. Because adding a leg can only make a trip longer,
+// completed itineraries come off the frontier in order, and each flight only needs to be expanded
+// as many times as results are wanted for each number of legs it can be reached in, since reaching
+// it in fewer legs leaves more legs for the rest of the trip.
+public class ConnectionSearch {
+
+    public static final Duration DEFAULT_MIN_CONNECTION_TIME = Duration.ofMinutes(45);
+    public static final Duration DEFAULT_MAX_LAYOVER = Duration.ofHours(12);
+    public static final int DEFAULT_MAX_LEGS = 3;
+
+    private static final Comparator<Itinerary> BY_TRAVEL_TIME =
+            Comparator.comparing(Itinerary::getTotalTravelTime).thenComparing(Itinerary::getArrivalTime);
+
+    private final FlightSchedule flightSchedule;
+    private Duration minConnectionTime;
+    private Duration maxLayover;
+    private int maxLegs;
+
+    // EFFECTS: constructs a connection search over the given flight schedule with the default
+    //          minimum connection time, maximum layover and maximum number of legs
+    public ConnectionSearch(FlightSchedule flightSchedule) {
+        this.flightSchedule = flightSchedule;
+        this.minConnectionTime = DEFAULT_MIN_CONNECTION_TIME;
+        this.maxLayover = DEFAULT_MAX_LAYOVER;
+        this.maxLegs = DEFAULT_MAX_LEGS;
+    }
+
+    public Duration getMinConnectionTime() {
+        return minConnectionTime;
+    }
+
+    // REQUIRES: minConnectionTime is not negative and not longer than the maximum layover
+    public void setMinConnectionTime(Duration minConnectionTime) {
+        this.minConnectionTime = minConnectionTime;
+    }
+
+    public Duration getMaxLayover() {
+        return maxLayover;
+    }
+
+    // REQUIRES: maxLayover is not shorter than the minimum connection time
+    public void setMaxLayover(Duration maxLayover) {
+        this.maxLayover = maxLayover;
+    }
+
+    public int getMaxLegs() {
+        return maxLegs;
+    }
+
+    // REQUIRES: maxLegs >= 1
+    public void setMaxLegs(int maxLegs) {
+        this.maxLegs = maxLegs;
+    }
+
+    // REQUIRES: start and end airport codes that aren't empty, from is not after to, maxResults >= 1
+    // EFFECTS: returns up to maxResults itineraries from start to end whose first flight departs between
+    //          from and to (both inclusive), ordered by shortest total travel time. Itineraries never
+    //          pass through the same airport twice, and every connection respects the minimum
+    //          connection time, maximum layover and maximum number of legs.
+    public List<Itinerary> search(String start, String end, LocalDateTime from, LocalDateTime to,
+                                  int maxResults) {
+        List<Itinerary> results = new ArrayList<>();
+        PriorityQueue<Itinerary> frontier = new PriorityQueue<>(BY_TRAVEL_TIME);
+        List<Flight> firstLegs = maxLegs == 1
+                ? flightSchedule.getFlightsByDepartureWindow(start, end, from, to)
+                : flightSchedule.getDeparturesFrom(start, from, to);
+        for (Flight flight : firstLegs) {
+            offer(frontier, new Itinerary(List.of(flight)));
+        }
+
+        Map<Flight, int[]> expansions = new IdentityHashMap<>();
+        while (!frontier.isEmpty() && results.size() < maxResults) {
+            Itinerary itinerary = frontier.poll();
+            if (itinerary.getLastLeg().getEndLocation().equalsIgnoreCase(end)) {
+                results.add(itinerary);
+            } else if (++expansions.computeIfAbsent(itinerary.getLastLeg(), f -> new int[maxLegs + 1])
+                    [itinerary.getNumberOfLegs()] <= maxResults) {
+                expand(frontier, itinerary, end);
+            }
+        }
+        return results;
+    }
+
+    // MODIFIES: frontier
+    // EFFECTS: adds every itinerary that extends the given one with a connecting flight to the frontier,
+    //          only considering flights to the final destination when the next leg would be the last. Each
+    //          connection window depends on the itinerary's arrival, so it is looked up without the search cache.
+    private void expand(PriorityQueue<Itinerary> frontier, Itinerary itinerary, String end) {
+        LocalDateTime arrival = itinerary.getArrivalTime();
+        String airport = itinerary.getLastLeg().getEndLocation();
+        LocalDateTime earliest = arrival.plus(minConnectionTime);
+        LocalDateTime latest = arrival.plus(maxLayover);
+        if (itinerary.getNumberOfLegs() >= maxLegs || earliest.isAfter(latest)) {
+            return;
+        }
+        List<Flight> connections = itinerary.getNumberOfLegs() == maxLegs - 1
+                ? flightSchedule.findByDepartureWindow(airport, end, earliest, latest)
+                : flightSchedule.getDeparturesFrom(airport, earliest, latest);
+        for (Flight flight : connections) {
+            if (!itinerary.visits(flight.getEndLocation())) {
+                offer(frontier, itinerary.extend(flight));
+            }
+        }
+    }
+
+    // MODIFIES: frontier
+    // EFFECTS: adds the itinerary to the frontier unless its last flight arrives before it departs
+    private static void offer(PriorityQueue<Itinerary> frontier, Itinerary itinerary) {
+        Flight last = itinerary.getLastLeg();
+        if (!last.getArrivalTime().isBefore(last.getDepartureTime())) {
+            frontier.add(itinerary);
+        }
+    }
+}
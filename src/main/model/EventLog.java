@@ -3,6 +3,7 @@ package model;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Represents a log of the airplane system events.
@@ -13,7 +14,7 @@ import java.util.Iterator;
  */
 public class EventLog implements Iterable<Event> {
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
+    private static final EventLog theLog = new EventLog();
     private final Collection<Event> events;
 
     /**
@@ -21,33 +22,42 @@ public class EventLog implements Iterable<Event> {
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<>();
+        events = new ConcurrentLinkedQueue<>();
     }
 
     /**
-     * Gets instance of EventLog - creates it
-     * if it doesn't already exist.
+     * Gets instance of EventLog, which is created
+     * when the class is loaded, so getting it takes no lock.
      * (Singleton Design Pattern)
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
-
         return theLog;
     }
 
     /**
-     * Adds an event to the event log.
+     * Adds an event to the event log without locking,
+     * so bookings on unrelated flights don't wait on each other to log.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
         events.add(e);
     }
 
+    /**
+     * Clears the event log and logs the event.
+     */
+    public synchronized void clear() {
+        events.clear();
+        logEvent(new Event("Event log cleared."));
+    }
+
+    /**
+     * Iterates over a copy of the events logged so far,
+     * so events can keep being logged by other threads.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return new ArrayList<>(events).iterator();
     }
 }
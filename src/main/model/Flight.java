@@ -5,7 +5,10 @@ import persistence.Writable;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 // Represents a flight that holds all information regarding one flight
 public class Flight implements Writable {
@@ -23,15 +26,23 @@ public class Flight implements Writable {
     private String endLocation;
 
     private int maxSeats;
-    private int availableEconomySeats;
-    private int availableBusinessSeats;
-    private int availableFirstClassSeats;
+    // available economy, business and first class seats, in that order
+    private final AtomicIntegerArray availableSeats = new AtomicIntegerArray(3);
 
 
     private double economyPrice;
     private double businessPrice;
     private double firstClassPrice;
 
+    private final List<FlightObserver> observers = new CopyOnWriteArrayList<>();
+
+    // passengers waiting for a seat to be given back, created the first time someone joins
+    private volatile Waitlist waitlist;
+
+    // seats of each type the flight has in total, booked or not, and the seat assignments, created the first
+    // time a seat is assigned
+    private final int[] seatCapacity = new int[3];
+    private volatile SeatMap seatMap;
 
     // REQUIRES: Airline code, flight number, departure and arrival dates and time as a LocalDateTime
     //           start and end location as airport codes, max number of seats on flight
@@ -51,9 +62,12 @@ public class Flight implements Writable {
         this.startLocation = startLocation;
         this.endLocation = endLocation;
         this.maxSeats = maxSeats;
-        this.availableEconomySeats = availableEconomySeats;
-        this.availableBusinessSeats = availableBusinessSeats;
-        this.availableFirstClassSeats = availableFirstClassSeats;
+        this.availableSeats.set(0, availableEconomySeats);
+        this.availableSeats.set(1, availableBusinessSeats);
+        this.availableSeats.set(2, availableFirstClassSeats);
+        this.seatCapacity[0] = availableEconomySeats;
+        this.seatCapacity[1] = availableBusinessSeats;
+        this.seatCapacity[2] = availableFirstClassSeats;
         this.gateNumber = -1;
         this.airplaneModel = "TBD";
         this.flightNumber = flightNumber;
@@ -69,9 +83,9 @@ public class Flight implements Writable {
                 + " [" + arrivalTime.format(DateTimeFormatter.ofPattern("yy-MM-dd HH:mm")) + "]<br>"
                 + "Airplane Model: " + airplaneModel + "<br>"
                 + "Maximum Seats: " + maxSeats + "<br>"
-                + "Available Economy Seats: " + availableEconomySeats + "<br>"
-                + "Available Business Seats: " + availableBusinessSeats + "<br>"
-                + "Available First Class Seats: " + availableFirstClassSeats + "<html>";
+                + "Available Economy Seats: " + getAvailableEconomySeats() + "<br>"
+                + "Available Business Seats: " + getAvailableBusinessSeats() + "<br>"
+                + "Available First Class Seats: " + getAvailableFirstClassSeats() + "<html>";
     }
 
     // EFFECTS: returns a string with basic details of the flight
@@ -81,7 +95,7 @@ public class Flight implements Writable {
                 + " [" + departureTime.format(DateTimeFormatter.ofPattern("yy-MM-dd HH:mm")) + "]<br>"
                 + "Arrival: " + endLocation
                 + " [" + arrivalTime.format(DateTimeFormatter.ofPattern("yy-MM-dd HH:mm")) + "]<br>"
-                + "Remaining Seats: " + (availableFirstClassSeats + availableBusinessSeats + availableEconomySeats)
+                + "Remaining Seats: " + getRemainingSeats()
                 + "<html>";
     }
 
@@ -136,6 +150,7 @@ public class Flight implements Writable {
 
     public void setDepartureTime(LocalDateTime departureTime) {
         this.departureTime = departureTime;
+        notifyObservers();
     }
 
     public LocalDateTime getArrivalTime() {
@@ -154,6 +169,7 @@ public class Flight implements Writable {
 
     public void setStartLocation(String startLocation) {
         this.startLocation = startLocation;
+        notifyObservers();
     }
 
 
@@ -163,6 +179,7 @@ public class Flight implements Writable {
 
     public void setEndLocation(String endLocation) {
         this.endLocation = endLocation;
+        notifyObservers();
     }
 
 
@@ -176,29 +193,32 @@ public class Flight implements Writable {
 
 
     public int getAvailableEconomySeats() {
-        return availableEconomySeats;
+        return availableSeats.get(0);
     }
 
     public void setAvailableEconomySeats(int availableEconomySeats) {
-        this.availableEconomySeats = availableEconomySeats;
+        this.availableSeats.set(0, availableEconomySeats);
+        notifyObservers();
     }
 
 
     public int getAvailableBusinessSeats() {
-        return availableBusinessSeats;
+        return availableSeats.get(1);
     }
 
     public void setAvailableBusinessSeats(int availableBusinessSeats) {
-        this.availableBusinessSeats = availableBusinessSeats;
+        this.availableSeats.set(1, availableBusinessSeats);
+        notifyObservers();
     }
 
 
     public int getAvailableFirstClassSeats() {
-        return availableFirstClassSeats;
+        return availableSeats.get(2);
     }
 
     public void setAvailableFirstClassSeats(int availableFirstClassSeats) {
-        this.availableFirstClassSeats = availableFirstClassSeats;
+        this.availableSeats.set(2, availableFirstClassSeats);
+        notifyObservers();
     }
 
 
@@ -208,6 +228,7 @@ public class Flight implements Writable {
 
     public void setEconomyPrice(double economyPrice) {
         this.economyPrice = economyPrice;
+        notifyObservers();
     }
 
 
@@ -218,6 +239,7 @@ public class Flight implements Writable {
 
     public void setBusinessPrice(double businessPrice) {
         this.businessPrice = businessPrice;
+        notifyObservers();
     }
 
     public double getFirstClassPrice() {
@@ -226,49 +248,232 @@ public class Flight implements Writable {
 
     public void setFirstClassPrice(double firstClassPrice) {
         this.firstClassPrice = firstClassPrice;
+        notifyObservers();
     }
 
 
     // MODIFIES: this
-    // EFFECTS: subtracts one from the available economy seat
-    public void bookEconomy() {
-        this.availableEconomySeats -= 1;
+    // EFFECTS: subtracts one from the available economy seats if there are any left;
+    //          returns true if a seat was booked
+    public boolean bookEconomy() {
+        return tryBook(1);
     }
 
     // MODIFIES: this
-    // EFFECTS: subtracts one from the available business seat
-    public void bookBusiness() {
-        this.availableBusinessSeats -= 1;
+    // EFFECTS: subtracts one from the available business seats if there are any left;
+    //          returns true if a seat was booked
+    public boolean bookBusiness() {
+        return tryBook(2);
     }
 
     // MODIFIES: this
-    // EFFECTS: subtracts one from the available first class seat
-    public void bookFirstClass() {
-        this.availableFirstClassSeats -= 1;
+    // EFFECTS: subtracts one from the available first class seats if there are any left;
+    //          returns true if a seat was booked
+    public boolean bookFirstClass() {
+        return tryBook(3);
     }
 
     // MODIFIES: this
     // EFFECTS: adds one seat to the available economy seat
     public void addEconomySeat() {
-        this.availableEconomySeats += 1;
+        release(1);
     }
 
     // MODIFIES: this
     // EFFECTS: adds one seat to the available business seat
     public void addBusinessSeat() {
-        this.availableBusinessSeats += 1;
+        release(2);
     }
 
     // MODIFIES: this
     // EFFECTS: adds one seat to the available first class seat
     public void addFirstClassSeat() {
-        this.availableFirstClassSeats += 1;
+        release(3);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: atomically takes one seat of the given type if there are any left, without locking;
+    //          returns true if a seat was taken and false if the seat type is sold out
+    public boolean tryBook(int seat) {
+        return tryBook(seat, 1);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), count >= 1
+    // MODIFIES: this
+    // EFFECTS: atomically takes count seats of the given type if at least that many are left, without locking;
+    //          returns true if the seats were taken and false, taking none, if there aren't enough left
+    public boolean tryBook(int seat, int count) {
+        int index = seat - 1;
+        int available = availableSeats.get(index);
+        while (available >= count) {
+            if (availableSeats.compareAndSet(index, available, available - count)) {
+                notifyObservers();
+                return true;
+            }
+            available = availableSeats.get(index);
+        }
+        return false;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: gives one seat of the given type back to the available seats, without locking. Waitlisted
+    //          passengers are only promoted when the seat is given back through BookingCoordinator, which
+    //          every cancellation goes through.
+    public void release(int seat) {
+        availableSeats.incrementAndGet(seat - 1);
+        notifyObservers();
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: removes the passenger from the waitlist of the given seat type; returns true if they were on it
+    public boolean leaveWaitlist(Passenger passenger, int seat) {
+        Waitlist current = waitlist;
+        return current != null && current.remove(seat, passenger);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of passengers waiting for the given seat type
+    public int getWaitlistSize(int seat) {
+        Waitlist current = waitlist;
+        return current == null ? 0 : current.size(seat);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of seats of the given type the flight has in total, booked or not
+    public synchronized int getSeatCapacity(int seat) {
+        return seatCapacity[seat - 1];
+    }
+
+    // REQUIRES: non-negative number of seats of each type, no seat map created yet
+    // MODIFIES: this
+    // EFFECTS: sets the number of seats of each type the flight has in total, booked or not, which its seat map
+    //          is sized to; flights are created with all their seats available, so this is only needed for a
+    //          flight restored with some of its seats already taken
+    public synchronized void setSeatCapacity(int economySeats, int businessSeats, int firstClassSeats) {
+        seatCapacity[0] = economySeats;
+        seatCapacity[1] = businessSeats;
+        seatCapacity[2] = firstClassSeats;
+    }
+
+    // EFFECTS: returns true if a seat map has been created or set for this flight
+    public boolean hasSeatMap() {
+        return seatMap != null;
+    }
+
+    // EFFECTS: returns the seat assignments of this flight, creating an empty seat map sized to the flight's
+    //          seat capacity if no seat has been assigned yet
+    public SeatMap getSeatMap() {
+        SeatMap current = seatMap;
+        if (current == null) {
+            synchronized (this) {
+                if (seatMap == null) {
+                    seatMap = new SeatMap(seatCapacity[0], seatCapacity[1], seatCapacity[2]);
+                }
+                current = seatMap;
+            }
+        }
+        return current;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the seat assignments of this flight
+    public void setSeatMap(SeatMap seatMap) {
+        this.seatMap = seatMap;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: adds the passenger to the back of the waitlist of the given seat type
+    void addToWaitlist(int seat, Passenger passenger) {
+        getWaitlist().add(seat, passenger);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns true if somebody is waiting for the given seat type
+    boolean hasWaiting(int seat) {
+        Waitlist current = waitlist;
+        return current != null && !current.isEmpty(seat);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: removes and returns the first passenger waiting for the given seat type who hasn't booked this
+    //          flight since joining, dropping those who have; returns null if there is no such passenger
+    Passenger pollWaitlist(int seat) {
+        Waitlist current = waitlist;
+        if (current == null) {
+            return null;
+        }
+        Passenger passenger = current.poll(seat);
+        while (passenger != null && passenger.hasFlight(this)) {
+            passenger = current.poll(seat);
+        }
+        return passenger;
+    }
+
+    // EFFECTS: returns the waitlist of this flight, creating it if nobody has joined it yet
+    private Waitlist getWaitlist() {
+        Waitlist current = waitlist;
+        if (current == null) {
+            synchronized (this) {
+                if (waitlist == null) {
+                    waitlist = new Waitlist();
+                }
+                current = waitlist;
+            }
+        }
+        return current;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of available seats of the given seat type
+    public int getAvailableSeats(int seat) {
+        return availableSeats.get(seat - 1);
+    }
+
+    // EFFECTS: returns the number of available seats over all seat types
+    public int getRemainingSeats() {
+        return availableSeats.get(0) + availableSeats.get(1) + availableSeats.get(2);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the price of the given seat type
+    public double getPrice(int seat) {
+        switch (seat) {
+            case 1:
+                return economyPrice;
+            case 2:
+                return businessPrice;
+            default:
+                return firstClassPrice;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers an observer to be notified whenever the seats, prices or departure time change
+    public void addObserver(FlightObserver observer) {
+        observers.add(observer);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer of changes to this flight
+    public void removeObserver(FlightObserver observer) {
+        observers.remove(observer);
+    }
+
+    // EFFECTS: notifies all observers that this flight has changed
+    private void notifyObservers() {
+        for (FlightObserver observer : observers) {
+            observer.update(this);
+        }
     }
 
     // EFFECTS: returns true if flight is full
     public Boolean isFull() {
-        return (this.availableBusinessSeats + this.availableEconomySeats + this.availableFirstClassSeats)
-                == 0;
+        return getRemainingSeats() == 0;
     }
 
     // EFFECTS: converts a flight into a json object
@@ -285,12 +490,19 @@ public class Flight implements Writable {
         json.put("start location", startLocation);
         json.put("destination", endLocation);
         json.put("max seats", maxSeats);
-        json.put("remaining economy seats", availableEconomySeats);
-        json.put("remaining business seats", availableBusinessSeats);
-        json.put("remaining first class seats", availableFirstClassSeats);
+        json.put("remaining economy seats", getAvailableEconomySeats());
+        json.put("remaining business seats", getAvailableBusinessSeats());
+        json.put("remaining first class seats", getAvailableFirstClassSeats());
+        json.put("economy capacity", getSeatCapacity(1));
+        json.put("business capacity", getSeatCapacity(2));
+        json.put("first class capacity", getSeatCapacity(3));
         json.put("economy price", economyPrice);
         json.put("business price", businessPrice);
         json.put("first class price", firstClassPrice);
+        SeatMap current = seatMap;
+        if (current != null) {
+            json.put("seat map", current.toJson());
+        }
 
         return json;
     }
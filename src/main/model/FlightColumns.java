@@ -0,0 +1,194 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Stores the seat counts, prices and departure times of a flight schedule's flights in parallel
+// primitive arrays, one row per flight, so filters over them run as tight loops over primitives
+// instead of visiting every Flight object. Rows line up with the positions of the flights in the schedule.
+// Seat changes from booking threads only mark their row as changed, without locking; the columns are
+// guarded by this store's monitor and changed rows are copied again from their flights before each read.
+public class FlightColumns {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Flight[] flights;
+    private int[] economySeats;
+    private int[] businessSeats;
+    private int[] firstClassSeats;
+    private double[] economyPrices;
+    private double[] businessPrices;
+    private double[] firstClassPrices;
+    private long[] departureTimes;
+    private int size;
+    private final ChangedRows changed = new ChangedRows(INITIAL_CAPACITY);
+
+    // EFFECTS: constructs an empty columnar store
+    public FlightColumns() {
+        flights = new Flight[INITIAL_CAPACITY];
+        economySeats = new int[INITIAL_CAPACITY];
+        businessSeats = new int[INITIAL_CAPACITY];
+        firstClassSeats = new int[INITIAL_CAPACITY];
+        economyPrices = new double[INITIAL_CAPACITY];
+        businessPrices = new double[INITIAL_CAPACITY];
+        firstClassPrices = new double[INITIAL_CAPACITY];
+        departureTimes = new long[INITIAL_CAPACITY];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the flight as a new last row and returns its row number
+    public synchronized int add(Flight flight) {
+        if (size == flights.length) {
+            grow();
+        }
+        int row = size++;
+        copy(row, flight);
+        return row;
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // MODIFIES: this
+    // EFFECTS: copies the flight's current seats, prices and departure time into the given row
+    public synchronized void update(int row, Flight flight) {
+        copy(row, flight);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // MODIFIES: this
+    // EFFECTS: marks the given row's flight as changed without locking, so its seats, prices and departure
+    //          time are copied again before the columns are next read
+    public void markChanged(int row) {
+        changed.mark(row);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // MODIFIES: this
+    // EFFECTS: removes the given row by moving the last row into its place
+    public synchronized void remove(int row) {
+        int last = --size;
+        if (row != last) {
+            copy(row, flights[last]);
+        }
+        flights[last] = null;
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public synchronized Flight getFlight(int row) {
+        return flights[row];
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns all flights, in row order, with at least one available seat of the given type
+    //          priced at or under maxPrice
+    public synchronized List<Flight> findAvailableUnderPrice(int seat, double maxPrice) {
+        refreshChanged();
+        int[] seats = seatColumn(seat);
+        double[] prices = priceColumn(seat);
+        List<Flight> found = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (seats[row] > 0 && prices[row] <= maxPrice) {
+                found.add(flights[row]);
+            }
+        }
+        return found;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), from is not after to
+    // EFFECTS: returns all flights, in row order, with at least one available seat of the given type
+    //          that depart between from and to (both inclusive)
+    public synchronized List<Flight> findAvailableDepartingBetween(int seat, LocalDateTime from, LocalDateTime to) {
+        refreshChanged();
+        int[] seats = seatColumn(seat);
+        long start = toEpochSecond(from);
+        long end = toEpochSecond(to);
+        List<Flight> found = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (seats[row] > 0 && departureTimes[row] >= start && departureTimes[row] <= end) {
+                found.add(flights[row]);
+            }
+        }
+        return found;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the total number of available seats of the given type over all flights
+    public synchronized long countAvailableSeats(int seat) {
+        refreshChanged();
+        int[] seats = seatColumn(seat);
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            total += seats[row];
+        }
+        return total;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the flight's current seats, prices and departure time into the given row
+    private void copy(int row, Flight flight) {
+        flights[row] = flight;
+        economySeats[row] = flight.getAvailableEconomySeats();
+        businessSeats[row] = flight.getAvailableBusinessSeats();
+        firstClassSeats[row] = flight.getAvailableFirstClassSeats();
+        economyPrices[row] = flight.getEconomyPrice();
+        businessPrices[row] = flight.getBusinessPrice();
+        firstClassPrices[row] = flight.getFirstClassPrice();
+        departureTimes[row] = toEpochSecond(flight.getDepartureTime());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies the rows marked as changed from their flights again
+    private void refreshChanged() {
+        changed.drain(size, row -> copy(row, flights[row]));
+    }
+
+    // EFFECTS: returns the seat column of the given seat type
+    private int[] seatColumn(int seat) {
+        switch (seat) {
+            case 1:
+                return economySeats;
+            case 2:
+                return businessSeats;
+            default:
+                return firstClassSeats;
+        }
+    }
+
+    // EFFECTS: returns the price column of the given seat type
+    private double[] priceColumn(int seat) {
+        switch (seat) {
+            case 1:
+                return economyPrices;
+            case 2:
+                return businessPrices;
+            default:
+                return firstClassPrices;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the capacity of every column
+    private void grow() {
+        int capacity = flights.length * 2;
+        flights = Arrays.copyOf(flights, capacity);
+        economySeats = Arrays.copyOf(economySeats, capacity);
+        businessSeats = Arrays.copyOf(businessSeats, capacity);
+        firstClassSeats = Arrays.copyOf(firstClassSeats, capacity);
+        economyPrices = Arrays.copyOf(economyPrices, capacity);
+        businessPrices = Arrays.copyOf(businessPrices, capacity);
+        firstClassPrices = Arrays.copyOf(firstClassPrices, capacity);
+        departureTimes = Arrays.copyOf(departureTimes, capacity);
+        changed.ensureCapacity(capacity);
+    }
+
+    // EFFECTS: returns the given date and time as seconds since the epoch, treating it as UTC
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,8 @@
+package model;
+
+// Observer of a flight's seats, prices and departure time (Observer Design Pattern)
+public interface FlightObserver {
+
+    // EFFECTS: reacts to a change of the given flight
+    void update(Flight flight);
+}
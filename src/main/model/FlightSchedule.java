@@ -4,32 +4,363 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 import persistence.Writable;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 
 // Represents a Flight schedule that holds all scheduled flights
-public class FlightSchedule implements Writable {
+public class FlightSchedule implements Writable, FlightObserver {
+
+    // schedules with at most this many flights are searched on the calling thread
+    public static final int PARALLEL_SEARCH_THRESHOLD = 8192;
+
+    public static final int SEARCH_CACHE_SIZE = 1024;
 
     List<Flight> flightSchedule = new ArrayList<>();
 
+    // position of each flight in flightSchedule, keyed by the flight's id
+    private final Map<UUID, Integer> flightRows = new HashMap<>();
+
+    // index of flights by route, keyed on the normalized start and end airport codes,
+    // with each route's flights sorted by departure time
+    private final Map<String, NavigableMap<LocalDateTime, List<Flight>>> routeIndex = new HashMap<>();
+
+    // index of flights by their normalized start airport code, sorted by departure time
+    private final Map<String, NavigableMap<LocalDateTime, List<Flight>>> departureIndex = new HashMap<>();
+
+    // airports and departure time each scheduled flight is indexed under, keyed by the flight's id, so a flight
+    // can still be found in the indexes after any of them changed
+    private final Map<UUID, IndexedAt> indexedAt = new HashMap<>();
+
+    // recent route search results, dropped whenever a flight joins or leaves the route's index; results hold
+    // the scheduled flights themselves, so seat and price changes show through without dropping them
+    private final SearchCache searchCache = new SearchCache(SEARCH_CACHE_SIZE);
+
+    // which scheduled flights still have seats, by position in flightSchedule
+    private final AvailabilityIndex availability = new AvailabilityIndex();
+
+    // prefix tree of the airports with departures, for autocompleting airport codes
+    private final AirportTrie airports = new AirportTrie();
+
+    // optional columnar copy of the flights' seats, prices and departure times, null until enabled
+    private volatile FlightColumns columns;
+
     // REQUIRES: start and end airport codes that aren't empty
     // EFFECTS: finds all flights with given start and end airport codes and adds them to a list to be returned
+    //          in order of departure time
     public List<Flight> getFlightsByDestination(String startDestination, String endDestination) {
+        String route = routeKey(startDestination, endDestination);
+        List<Flight> flights = searchCache.get(route);
+        if (flights == null) {
+            flights = new ArrayList<>();
+            NavigableMap<LocalDateTime, List<Flight>> departures = routeIndex.get(route);
+            if (departures != null) {
+                departures.values().forEach(flights::addAll);
+            }
+            searchCache.put(route, route, flights);
+        }
+        return new ArrayList<>(flights);
+    }
+
+    // REQUIRES: start and end airport codes that aren't empty, from is not after to
+    // EFFECTS: finds all flights with given start and end airport codes that depart between from and to
+    //          (both inclusive) and returns them in order of departure time
+    public List<Flight> getFlightsByDepartureWindow(String startDestination, String endDestination,
+                                                    LocalDateTime from, LocalDateTime to) {
+        String route = routeKey(startDestination, endDestination);
+        String key = route + "|" + from + "|" + to;
+        List<Flight> flights = searchCache.get(key);
+        if (flights == null) {
+            flights = findByDepartureWindow(startDestination, endDestination, from, to);
+            searchCache.put(route, key, flights);
+        }
+        return new ArrayList<>(flights);
+    }
+
+    // REQUIRES: start and end airport codes that aren't empty, from is not after to
+    // EFFECTS: same as getFlightsByDepartureWindow, but always looks the flights up in the route index without
+    //          touching the search cache, for internal searches whose windows are rarely asked for twice
+    List<Flight> findByDepartureWindow(String startDestination, String endDestination,
+                                       LocalDateTime from, LocalDateTime to) {
         List<Flight> flights = new ArrayList<>();
-        for (Flight flight : flightSchedule) {
-            if (flight.getStartLocation().equalsIgnoreCase(startDestination)
-                    && flight.getEndLocation().equalsIgnoreCase(endDestination)) {
-                flights.add(flight);
+        NavigableMap<LocalDateTime, List<Flight>> departures = routeIndex.get(routeKey(startDestination,
+                endDestination));
+        if (departures != null) {
+            departures.subMap(from, true, to, true).values().forEach(flights::addAll);
+        }
+        return flights;
+    }
+
+    // REQUIRES: start and end airport codes that aren't empty, seat type in int (1-economy, 2-business,
+    //           3-first-class), from is not after to, k >= 1
+    // EFFECTS: returns the k cheapest flights for the given seat type with given start and end airport codes
+    //          that depart between from and to (both inclusive) and still have that seat type available,
+    //          ordered from cheapest to most expensive, with ties in order of departure time
+    public List<Flight> getCheapestFlights(String startDestination, String endDestination, int seat,
+                                           LocalDateTime from, LocalDateTime to, int k) {
+        Comparator<Flight> byPrice = Comparator.comparingDouble((Flight f) -> f.getPrice(seat))
+                .thenComparing(Flight::getDepartureTime);
+        PriorityQueue<Flight> cheapest = new PriorityQueue<>(k, byPrice.reversed());
+        NavigableMap<LocalDateTime, List<Flight>> departures = routeIndex.get(routeKey(startDestination,
+                endDestination));
+        if (departures != null) {
+            for (List<Flight> flights : departures.subMap(from, true, to, true).values()) {
+                for (Flight flight : flights) {
+                    if (flight.getAvailableSeats(seat) <= 0) {
+                        continue;
+                    }
+                    if (cheapest.size() < k) {
+                        cheapest.add(flight);
+                    } else if (byPrice.compare(flight, cheapest.peek()) < 0) {
+                        cheapest.poll();
+                        cheapest.add(flight);
+                    }
+                }
             }
         }
+        List<Flight> result = new ArrayList<>(cheapest);
+        result.sort(byPrice);
+        return result;
+    }
+
+    // REQUIRES: start airport code that isn't empty, from is not after to
+    // EFFECTS: finds all flights leaving the given airport that depart between from and to
+    //          (both inclusive) and returns them in order of departure time
+    public List<Flight> getDeparturesFrom(String startDestination, LocalDateTime from, LocalDateTime to) {
+        List<Flight> flights = new ArrayList<>();
+        NavigableMap<LocalDateTime, List<Flight>> departures =
+                departureIndex.get(startDestination.toUpperCase(Locale.ROOT));
+        if (departures != null) {
+            departures.subMap(from, true, to, true).values().forEach(flights::addAll);
+        }
         return flights;
     }
 
-    // REQUIRES: flight
+    // EFFECTS: returns the scheduled flight with the given id, or null if there is none
+    public Flight getFlight(UUID id) {
+        Integer row = flightRows.get(id);
+        return row == null ? null : flightSchedule.get(row);
+    }
+
+    // REQUIRES: flight with an id that isn't already in the flight schedule
     // MODIFIES: this
-    // EFFECTS: adds a flight to the flight schedule
+    // EFFECTS: adds a flight to the flight schedule and indexes it by its id, route, start airport
+    //          and departure time
     public void addFlight(Flight flight) {
+        flightRows.put(flight.getId(), flightSchedule.size());
         this.flightSchedule.add(flight);
+        if (columns != null) {
+            columns.add(flight);
+        }
+        availability.update(flightSchedule.size() - 1, flight);
+        flight.addObserver(this);
+        index(flight);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the flight with the given id from the flight schedule and all of its indexes and
+    //          returns it, or returns null if there is no such flight. The last flight in the schedule
+    //          is moved into the removed flight's position.
+    public Flight removeFlight(UUID id) {
+        Integer row = flightRows.get(id);
+        if (row == null) {
+            return null;
+        }
+        Flight flight = flightSchedule.get(row);
+        unindex(flight);
+        flightRows.remove(id);
+        Flight last = flightSchedule.remove(flightSchedule.size() - 1);
+        if (last != flight) {
+            flightSchedule.set(row, last);
+            flightRows.put(last.getId(), row);
+        }
+        if (columns != null) {
+            columns.remove(row);
+        }
+        availability.remove(row, flightSchedule.size());
+        flight.removeObserver(this);
+        return flight;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves a scheduled flight in the indexes, dropping the cached searches of its old and new
+    //          routes, if its airports or departure time changed, and keeps the availability index and
+    //          the columnar store, if enabled, in sync with it. Called from whichever thread changed the
+    //          flight, so the availability index and the columnar store are only told which row changed.
+    @Override
+    public void update(Flight flight) {
+        Integer row = flightRows.get(flight.getId());
+        if (row == null) {
+            return;
+        }
+        if (!indexedAt.get(flight.getId()).matches(flight)) {
+            unindex(flight);
+            index(flight);
+        }
+        availability.markChanged(row);
+        FlightColumns current = columns;
+        if (current != null) {
+            current.markChanged(row);
+        }
+    }
+
+    // EFFECTS: returns all scheduled flights that aren't full and that the passenger hasn't booked,
+    //          in schedule order
+    public List<Flight> getAvailableFlights(Passenger passenger) {
+        return flightsAt(availability.availableExcept(bookedRows(passenger)));
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns all scheduled flights with the given seat type available that the passenger
+    //          hasn't booked, in schedule order
+    public List<Flight> getAvailableFlights(Passenger passenger, int seat) {
+        return flightsAt(availability.availableExcept(seat, bookedRows(passenger)));
+    }
+
+    // EFFECTS: returns the rows of the scheduled flights the passenger has booked
+    private BitSet bookedRows(Passenger passenger) {
+        BitSet booked = new BitSet();
+        for (BookedFlight bookedFlight : passenger.getBookedFlights()) {
+            Integer row = flightRows.get(bookedFlight.getFlight().getId());
+            if (row != null) {
+                booked.set(row);
+            }
+        }
+        return booked;
+    }
+
+    // EFFECTS: returns the flights in the given rows, in row order
+    private List<Flight> flightsAt(BitSet rows) {
+        List<Flight> flights = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0 && row < flightSchedule.size(); row = rows.nextSetBit(row + 1)) {
+            flights.add(flightSchedule.get(row));
+        }
+        return flights;
+    }
+
+    // EFFECTS: returns up to limit codes of airports with departures whose code or name starts with prefix
+    public List<String> autocompleteAirport(String prefix, int limit) {
+        return airports.complete(prefix, limit);
+    }
+
+    // REQUIRES: code and name that aren't empty
+    // MODIFIES: this
+    // EFFECTS: lets the airport with the given code be autocompleted from its name as well
+    public void addAirportName(String code, String name) {
+        airports.addAirportName(code, name);
+    }
+
+    public SearchCache getSearchCache() {
+        return searchCache;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: builds a columnar store of all scheduled flights' seats, prices and departure times
+    //          which is then kept up to date as flights are added, removed or changed
+    public void enableColumnarStore() {
+        if (columns == null) {
+            columns = new FlightColumns();
+            flightSchedule.forEach(columns::add);
+        }
+    }
+
+    public boolean isColumnarStoreEnabled() {
+        return columns != null;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns all flights with at least one available seat of the given type priced at or
+    //          under maxPrice, scanning the columnar store if it is enabled
+    public List<Flight> getAvailableFlightsUnderPrice(int seat, double maxPrice) {
+        FlightColumns current = columns;
+        if (current != null) {
+            return current.findAvailableUnderPrice(seat, maxPrice);
+        }
+        List<Flight> flights = new ArrayList<>();
+        for (Flight flight : flightSchedule) {
+            if (flight.getAvailableSeats(seat) > 0 && flight.getPrice(seat) <= maxPrice) {
+                flights.add(flight);
+            }
+        }
+        return flights;
+    }
+
+    // REQUIRES: predicate that is safe to call from several threads at once
+    // EFFECTS: returns all flights matching the predicate in schedule order. Large schedules are split
+    //          into chunks that are searched in parallel on the common fork-join pool.
+    public List<Flight> findFlights(Predicate<? super Flight> predicate) {
+        int size = flightSchedule.size();
+        if (size <= PARALLEL_SEARCH_THRESHOLD) {
+            return FlightSearchTask.search(flightSchedule, predicate, 0, size);
+        }
+        int chunk = Math.max(PARALLEL_SEARCH_THRESHOLD / 4,
+                size / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        return ForkJoinPool.commonPool().invoke(new FlightSearchTask(flightSchedule, predicate, 0, size, chunk));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the flight to the airport trie and the route and departure indexes under its current
+    //          airports and departure time, and drops the cached searches of its route
+    private void index(Flight flight) {
+        IndexedAt at = new IndexedAt(flight);
+        indexedAt.put(flight.getId(), at);
+        airports.addDeparture(at.startLocation);
+        searchCache.invalidateRoute(at.routeKey());
+        indexByDeparture(routeIndex, at.routeKey(), at.departureTime, flight);
+        indexByDeparture(departureIndex, at.startLocation.toUpperCase(Locale.ROOT), at.departureTime, flight);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the flight from the airport trie and the route and departure indexes under the airports
+    //          and departure time it was indexed with, and drops the cached searches of that route
+    private void unindex(Flight flight) {
+        IndexedAt at = indexedAt.remove(flight.getId());
+        airports.removeDeparture(at.startLocation);
+        searchCache.invalidateRoute(at.routeKey());
+        unindexByDeparture(routeIndex, at.routeKey(), at.departureTime, flight);
+        unindexByDeparture(departureIndex, at.startLocation.toUpperCase(Locale.ROOT), at.departureTime, flight);
+    }
+
+    // MODIFIES: index
+    // EFFECTS: adds the flight to the departure-time ordered flights stored under key in the given index
+    private static void indexByDeparture(Map<String, NavigableMap<LocalDateTime, List<Flight>>> index,
+                                         String key, LocalDateTime departureTime, Flight flight) {
+        index.computeIfAbsent(key, k -> new TreeMap<>())
+                .computeIfAbsent(departureTime, k -> new ArrayList<>())
+                .add(flight);
+    }
+
+    // MODIFIES: index
+    // EFFECTS: removes the flight from the flights stored under key and departureTime in the given index,
+    //          dropping any departure time or key that is left without flights
+    private static void unindexByDeparture(Map<String, NavigableMap<LocalDateTime, List<Flight>>> index,
+                                           String key, LocalDateTime departureTime, Flight flight) {
+        NavigableMap<LocalDateTime, List<Flight>> departures = index.get(key);
+        List<Flight> flights = departures.get(departureTime);
+        flights.remove(flight);
+        if (flights.isEmpty()) {
+            departures.remove(departureTime);
+        }
+        if (departures.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    // REQUIRES: start and end airport codes that aren't empty
+    // EFFECTS: returns the route index key of the given airport codes, ignoring case
+    static String routeKey(String startDestination, String endDestination) {
+        return startDestination.toUpperCase(Locale.ROOT) + "-" + endDestination.toUpperCase(Locale.ROOT);
     }
 
 
@@ -54,8 +385,35 @@ public class FlightSchedule implements Writable {
         return jsonArray;
     }
 
+    // EFFECTS: returns a copy of the scheduled flights in schedule order; removing a flight moves the last
+    //          flight of the schedule into its place
     public List<Flight> getFlightSchedule() {
-        return this.flightSchedule;
+        return new ArrayList<>(this.flightSchedule);
+    }
+
+    // The airports and departure time a flight was indexed under
+    private static final class IndexedAt {
+        private final String startLocation;
+        private final String endLocation;
+        private final LocalDateTime departureTime;
+
+        // EFFECTS: records the flight's current airports and departure time
+        IndexedAt(Flight flight) {
+            this.startLocation = flight.getStartLocation();
+            this.endLocation = flight.getEndLocation();
+            this.departureTime = flight.getDepartureTime();
+        }
+
+        // EFFECTS: returns the route index key of the recorded airports
+        String routeKey() {
+            return FlightSchedule.routeKey(startLocation, endLocation);
+        }
+
+        // EFFECTS: returns true if the flight still has the recorded airports and departure time
+        boolean matches(Flight flight) {
+            return startLocation.equals(flight.getStartLocation()) && endLocation.equals(flight.getEndLocation())
+                    && departureTime.equals(flight.getDepartureTime());
+        }
     }
 
 }
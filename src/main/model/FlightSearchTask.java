@@ -0,0 +1,58 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+// Fork-join task that finds the flights in a range of a flight list matching a predicate.
+// Ranges larger than the threshold are split in half and searched in parallel, and the
+// results are joined back together in list order.
+class FlightSearchTask extends RecursiveTask<List<Flight>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Flight> flights;
+    private final Predicate<? super Flight> predicate;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    // REQUIRES: 0 <= from <= to <= flights.size(), threshold >= 1
+    // EFFECTS: constructs a task searching flights from index from (inclusive) to index to (exclusive)
+    FlightSearchTask(List<Flight> flights, Predicate<? super Flight> predicate, int from, int to, int threshold) {
+        this.flights = flights;
+        this.predicate = predicate;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+    }
+
+    // EFFECTS: returns the flights in this task's range that match the predicate, in list order
+    @Override
+    protected List<Flight> compute() {
+        if (to - from <= threshold) {
+            return search(flights, predicate, from, to);
+        }
+        int middle = (from + to) >>> 1;
+        FlightSearchTask left = new FlightSearchTask(flights, predicate, from, middle, threshold);
+        FlightSearchTask right = new FlightSearchTask(flights, predicate, middle, to, threshold);
+        left.fork();
+        List<Flight> rightFlights = right.compute();
+        List<Flight> found = left.join();
+        found.addAll(rightFlights);
+        return found;
+    }
+
+    // EFFECTS: returns the flights from index from (inclusive) to index to (exclusive) that match the predicate
+    static List<Flight> search(List<Flight> flights, Predicate<? super Flight> predicate, int from, int to) {
+        List<Flight> found = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Flight flight = flights.get(i);
+            if (predicate.test(flight)) {
+                found.add(flight);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+// Represents a trip made up of one or more connecting flights, in the order they are flown
+public class Itinerary {
+
+    private final List<Flight> legs;
+
+    // REQUIRES: at least one flight, where each flight leaves from the airport the previous one arrives at
+    // EFFECTS: constructs an itinerary with the given legs
+    public Itinerary(List<Flight> legs) {
+        this.legs = Collections.unmodifiableList(new ArrayList<>(legs));
+    }
+
+    // REQUIRES: flight leaving from the airport this itinerary arrives at
+    // EFFECTS: returns a new itinerary with the given flight added as the last leg
+    public Itinerary extend(Flight flight) {
+        List<Flight> extended = new ArrayList<>(legs);
+        extended.add(flight);
+        return new Itinerary(extended);
+    }
+
+    public List<Flight> getLegs() {
+        return legs;
+    }
+
+    public int getNumberOfLegs() {
+        return legs.size();
+    }
+
+    public Flight getFirstLeg() {
+        return legs.get(0);
+    }
+
+    public Flight getLastLeg() {
+        return legs.get(legs.size() - 1);
+    }
+
+    public LocalDateTime getDepartureTime() {
+        return getFirstLeg().getDepartureTime();
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return getLastLeg().getArrivalTime();
+    }
+
+    // EFFECTS: returns the time from the first departure to the last arrival
+    public Duration getTotalTravelTime() {
+        return Duration.between(getDepartureTime(), getArrivalTime());
+    }
+
+    // EFFECTS: returns true if any leg of this itinerary leaves from the given airport code, ignoring case
+    public boolean visits(String airport) {
+        for (Flight flight : legs) {
+            if (flight.getStartLocation().equalsIgnoreCase(airport)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns a string with the flights and airports of the itinerary
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getFirstLeg().getStartLocation().toUpperCase(Locale.ROOT));
+        for (Flight flight : legs) {
+            builder.append(" -[").append(flight.getAirlineCode()).append(flight.getFlightNumber()).append("]-> ")
+                    .append(flight.getEndLocation().toUpperCase(Locale.ROOT));
+        }
+        return builder.toString();
+    }
+}
@@ -7,6 +7,7 @@ import persistence.Writable;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 // Represents a passenger with their needed information to book flights
 public class Passenger implements Writable {
@@ -42,7 +43,7 @@ public class Passenger implements Writable {
         this.password = password;
         this.dateOfBirth = dateOfBirth;
         this.phoneNumber = phoneNumber;
-        this.bookedFlights = new HashMap<>();
+        this.bookedFlights = new ConcurrentHashMap<>();
         this.id = UUID.randomUUID();
     }
 
@@ -133,29 +134,37 @@ public class Passenger implements Writable {
 
     // REQUIRES: flight and an integer from 1-3 indicating economy, business, first class respectively
     // MODIFIES: flight, this
-    // EFFECTS: adds a flight to the user's booked flights and subtract a seat from the corresponding flight
-    //          depending on seat chosen
-    public void addBookedFlight(Flight flight, int seat) {
-        this.bookedFlights.put(flight.getId(), new BookedFlight(seat, flight));
-        switch (seat) {
-            case 1:
-                flight.bookEconomy();
-                break;
-            case 2:
-                flight.bookBusiness();
-                break;
-            default:
-                flight.bookFirstClass();
-                break;
+    // EFFECTS: takes a seat of the chosen type from the flight, assigns the passenger a seat number and adds the
+    //          flight to the user's booked flights; returns false and leaves both unchanged if that seat type is
+    //          sold out
+    public boolean addBookedFlight(Flight flight, int seat) {
+        if (!flight.tryBook(seat)) {
+            return false;
         }
+        this.bookedFlights.put(flight.getId(), new BookedFlight(seat, flight, flight.getSeatMap().assign(seat)));
         EventLog eventlog = EventLog.getInstance();
         eventlog.logEvent(new Event("Added Flight " + flight.getAirlineCode() + flight.getFlightNumber()
                 + " to Passenger " + this.getFirstName() + " " + this.getLastName()
                 + " to passenger's booked flights."));
+        return true;
+    }
+
+    // REQUIRES: booked flight whose seat has already been taken from its flight
+    // MODIFIES: this
+    // EFFECTS: adds the booked flight to the user's booked flights without changing the flight's seats
+    void attachBookedFlight(BookedFlight bookedFlight) {
+        this.bookedFlights.put(bookedFlight.getFlight().getId(), bookedFlight);
     }
 
     public void setBookedFlight(Map<UUID, BookedFlight> bookedFlights) {
-        this.bookedFlights = bookedFlights;
+        this.bookedFlights = new ConcurrentHashMap<>(bookedFlights);
+    }
+
+    /*
+    EFFECTS: returns the passenger's booking of the flight with the given id, or null if there is none
+     */
+    public BookedFlight getBookedFlight(UUID id) {
+        return this.bookedFlights.get(id);
     }
 
     /*
@@ -168,28 +177,32 @@ public class Passenger implements Writable {
     /*
     REQUIRES: ID of flight
     MODIFIES: this
-    EFFECTS: removes the given flight from the list of booked flights
-             and add one to the corresponding seats on that flight
+    EFFECTS: removes the given flight from the list of booked flights, frees its seat number
+             and add one to the corresponding seats on that flight without promoting its waitlist or
+             journaling the cancellation; everything else cancels through BookingCoordinator.cancel
+     */
+    void removeBookedFlight(UUID id) {
+        BookedFlight flight = detachBookedFlight(id);
+        flight.getFlight().release(flight.getSeat());
+    }
+
+    /*
+    REQUIRES: ID of a booked flight
+    MODIFIES: this
+    EFFECTS: removes the given flight from the list of booked flights and frees its seat number, but leaves the
+             seat taken from the flight for the caller to give back; returns the removed booking
      */
-    public void removeBookedFlight(UUID id) {
-        BookedFlight flight = this.bookedFlights.get(id);
-        switch (flight.getSeat()) {
-            case 1:
-                flight.getFlight().addEconomySeat();
-                break;
-            case 2:
-                flight.getFlight().addBusinessSeat();
-                break;
-            default:
-                flight.getFlight().addFirstClassSeat();
-                break;
+    BookedFlight detachBookedFlight(UUID id) {
+        BookedFlight flight = this.bookedFlights.remove(id);
+        if (flight.getSeatNumber() != null) {
+            flight.getFlight().getSeatMap().release(flight.getSeatNumber());
         }
-        this.bookedFlights.remove(id);
         EventLog eventlog = EventLog.getInstance();
         eventlog.logEvent(new Event("Removed Flight " + flight.getFlight().getAirlineCode()
                 + flight.getFlight().getFlightNumber()
                 + " to Passenger " + this.getFirstName() + " " + this.getLastName()
                 + " from passenger's booked flights."));
+        return flight;
     }
 
 
@@ -0,0 +1,114 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Bounded cache of flight search results. Each result is stored under its query key and tagged with
+// the route it was computed for, so a change to one route only drops that route's results.
+// When full, the least recently used result is evicted.
+public class SearchCache {
+
+    private final int capacity;
+    private final LinkedHashMap<String, CachedResult> results;
+    private final Map<String, Set<String>> keysByRoute = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    // REQUIRES: capacity >= 1
+    // EFFECTS: constructs an empty cache holding at most capacity results
+    public SearchCache(int capacity) {
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the cached result for the given query key and counts a hit,
+    //          or returns null and counts a miss if it isn't cached
+    public synchronized List<Flight> get(String key) {
+        CachedResult result = results.get(key);
+        if (result == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return result.flights;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: caches the flights found for the given query key on the given route,
+    //          evicting the least recently used result if the cache is full
+    public synchronized void put(String route, String key, List<Flight> flights) {
+        CachedResult previous = results.put(key,
+                new CachedResult(route, Collections.unmodifiableList(new ArrayList<>(flights))));
+        if (previous != null) {
+            untag(previous.route, key);
+        }
+        keysByRoute.computeIfAbsent(route, r -> new HashSet<>()).add(key);
+        if (results.size() > capacity) {
+            Map.Entry<String, CachedResult> eldest = results.entrySet().iterator().next();
+            results.remove(eldest.getKey());
+            untag(eldest.getValue().route, eldest.getKey());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every cached result of the given route
+    public synchronized void invalidateRoute(String route) {
+        Set<String> keys = keysByRoute.remove(route);
+        if (keys != null) {
+            keys.forEach(results::remove);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every cached result
+    public synchronized void clear() {
+        results.clear();
+        keysByRoute.clear();
+    }
+
+    public synchronized int size() {
+        return results.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given query key from the keys tagged with the given route
+    private void untag(String route, String key) {
+        Set<String> keys = keysByRoute.get(route);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                keysByRoute.remove(route);
+            }
+        }
+    }
+
+    // A cached search result and the route it belongs to
+    private static class CachedResult {
+        private final String route;
+        private final List<Flight> flights;
+
+        CachedResult(String route, List<Flight> flights) {
+            this.route = route;
+            this.flights = flights;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// A seat taken from a flight's inventory for a limited time while a passenger finishes booking.
+// The hold ends exactly once: it is either confirmed into a booking, released, or expires.
+public class SeatHold {
+
+    // The states of a seat hold
+    public enum State { HELD, CONFIRMED, RELEASED, EXPIRED }
+
+    private final Flight flight;
+    private final int seat;
+    private final long expiresAt;
+    private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+
+    // remaining full turns of the timer wheel before this hold's bucket expires it
+    long rounds;
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class) already taken from the flight
+    // EFFECTS: constructs a seat hold on the flight that expires at the given time in milliseconds
+    SeatHold(Flight flight, int seat, long expiresAt) {
+        this.flight = flight;
+        this.seat = seat;
+        this.expiresAt = expiresAt;
+    }
+
+    public Flight getFlight() {
+        return flight;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the hold from held to the given state; returns false if it had already ended
+    boolean end(State ended) {
+        return state.compareAndSet(State.HELD, ended);
+    }
+}
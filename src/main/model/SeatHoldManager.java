@@ -0,0 +1,209 @@
+package model;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Holds seats on flights for a limited time and gives expired holds back to the flight.
+// Expiry uses a hashed timer wheel: time is cut into ticks, and each hold is put in the bucket of the
+// tick it expires in (modulo the wheel size) with the number of full turns left before then. Adding a
+// hold and expiring one are both constant time, and one ticker serves every outstanding hold.
+// Holding, confirming, releasing and expiring a hold run under the flight's stripe of the booking coordinator,
+// which counts the seats still held so snapshots can treat them as available, and a seat given back goes to
+// the flight's waitlist exactly as it would after a cancellation.
+public class SeatHoldManager {
+
+    public static final Duration DEFAULT_HOLD_TIME = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final BookingCoordinator coordinator;
+    private final long tickMillis;
+    private final List<List<SeatHold>> wheel;
+    private final LongSupplier clock;
+    private final long startedAt;
+    private long currentTick;
+
+    private final AtomicLong activeHolds = new AtomicLong();
+    private final AtomicLong confirmedHolds = new AtomicLong();
+    private final AtomicLong releasedHolds = new AtomicLong();
+    private final AtomicLong expiredHolds = new AtomicLong();
+
+    private ScheduledExecutorService ticker;
+
+    // EFFECTS: constructs a seat hold manager booking through the given coordinator, with the default tick and
+    //          wheel size using the system clock
+    public SeatHoldManager(BookingCoordinator coordinator) {
+        this(coordinator, DEFAULT_TICK, DEFAULT_WHEEL_SIZE, System::currentTimeMillis);
+    }
+
+    // REQUIRES: tick of at least one millisecond, wheelSize >= 1, clock returning milliseconds
+    // EFFECTS: constructs a seat hold manager booking through the given coordinator, whose wheel has wheelSize
+    //          buckets of one tick each
+    public SeatHoldManager(BookingCoordinator coordinator, Duration tick, int wheelSize, LongSupplier clock) {
+        this.coordinator = coordinator;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.clock = clock;
+        this.startedAt = clock.getAsLong();
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), positive hold time
+    // MODIFIES: this, flight
+    // EFFECTS: takes a seat of the given type from the flight and holds it for the given time;
+    //          returns the hold, or null if the seat type is sold out
+    public SeatHold hold(Flight flight, int seat, Duration holdTime) {
+        if (!coordinator.hold(flight, seat)) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        SeatHold hold = new SeatHold(flight, seat, now + holdTime.toMillis());
+        long expiryTick = Math.max(0, (hold.getExpiresAt() - startedAt + tickMillis - 1) / tickMillis);
+        synchronized (this) {
+            long ticks = Math.max(1, expiryTick - currentTick);
+            hold.rounds = (ticks - 1) / wheel.size();
+            wheel.get((int) ((currentTick + ticks) % wheel.size())).add(hold);
+        }
+        activeHolds.incrementAndGet();
+        return hold;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this, flight
+    // EFFECTS: holds a seat of the given type on the flight for the default hold time
+    public SeatHold hold(Flight flight, int seat) {
+        return hold(flight, seat, DEFAULT_HOLD_TIME);
+    }
+
+    // MODIFIES: this, passenger
+    // EFFECTS: turns a seat that is still held into a booking of the passenger; returns false if the hold
+    //          has already ended, or if the passenger had already booked the flight, in which case the
+    //          held seat is given back
+    public boolean confirm(SeatHold hold, Passenger passenger) {
+        CompletableFuture<Long> written;
+        ReentrantLock lock = coordinator.lockFor(hold.getFlight().getId());
+        lock.lock();
+        try {
+            if (passenger.hasFlight(hold.getFlight())) {
+                release(hold);
+                return false;
+            }
+            if (!hold.end(SeatHold.State.CONFIRMED)) {
+                return false;
+            }
+            activeHolds.decrementAndGet();
+            confirmedHolds.incrementAndGet();
+            coordinator.unhold(hold.getFlight(), hold.getSeat());
+            written = coordinator.attach(passenger, new BookedFlight(hold.getSeat(), hold.getFlight(),
+                    hold.getFlight().getSeatMap().assign(hold.getSeat())));
+        } finally {
+            lock.unlock();
+        }
+        BookingCoordinator.awaitWritten(written);
+        EventLog.getInstance().logEvent(new Event("Added Flight " + hold.getFlight().getAirlineCode()
+                + hold.getFlight().getFlightNumber() + " to Passenger " + passenger.getFirstName() + " "
+                + passenger.getLastName() + " to passenger's booked flights."));
+        return true;
+    }
+
+    // MODIFIES: this, held flight
+    // EFFECTS: gives a seat that is still held back to its flight, or to the first passenger on the flight's
+    //          waitlist for it; returns false if the hold has already ended
+    public boolean release(SeatHold hold) {
+        if (!hold.end(SeatHold.State.RELEASED)) {
+            return false;
+        }
+        activeHolds.decrementAndGet();
+        releasedHolds.incrementAndGet();
+        coordinator.releaseHeld(hold.getFlight(), hold.getSeat());
+        return true;
+    }
+
+    // MODIFIES: this, held flights
+    // EFFECTS: turns the wheel up to the current time, giving the seats of every expired hold back
+    //          to their flights or their waitlists, and returns how many holds expired
+    public int advance() {
+        List<SeatHold> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = (clock.getAsLong() - startedAt) / tickMillis;
+            while (currentTick < now) {
+                currentTick++;
+                expireBucket(wheel.get((int) (currentTick % wheel.size())), expired);
+            }
+        }
+        for (SeatHold hold : expired) {
+            coordinator.releaseHeld(hold.getFlight(), hold.getSeat());
+        }
+        return expired.size();
+    }
+
+    // MODIFIES: this, bucket, expired
+    // EFFECTS: expires the holds in the bucket that have no turns of the wheel left, adding them to expired,
+    //          and drops them along with holds that already ended; the rest wait one more turn
+    private void expireBucket(List<SeatHold> bucket, List<SeatHold> expired) {
+        List<SeatHold> waiting = new ArrayList<>();
+        for (SeatHold hold : bucket) {
+            if (hold.getState() != SeatHold.State.HELD) {
+                continue;
+            }
+            if (hold.rounds > 0) {
+                hold.rounds--;
+                waiting.add(hold);
+            } else if (hold.end(SeatHold.State.EXPIRED)) {
+                activeHolds.decrementAndGet();
+                expiredHolds.incrementAndGet();
+                expired.add(hold);
+            }
+        }
+        bucket.clear();
+        bucket.addAll(waiting);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a background thread that turns the wheel once every tick
+    public synchronized void start() {
+        if (ticker == null) {
+            ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "seat-hold-ticker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread turning the wheel, if it was started
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    public long getActiveHolds() {
+        return activeHolds.get();
+    }
+
+    public long getConfirmedHolds() {
+        return confirmedHolds.get();
+    }
+
+    public long getReleasedHolds() {
+        return releasedHolds.get();
+    }
+
+    public long getExpiredHolds() {
+        return expiredHolds.get();
+    }
+}
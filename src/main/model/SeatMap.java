@@ -0,0 +1,222 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+// Assigns actual seats (e.g. "12A") on a flight. Each seat type has its own block of rows - first class at
+// the front, then business, then economy - and one bit per seat marking whether it's taken, so a whole
+// flight's map fits in a few hundred bytes. First class and business rows are A-D (two seats each side of
+// the aisle) and economy rows are A-F (three each side); A and the last letter of a row are window seats.
+public class SeatMap implements Writable {
+
+    // seat letters of each row, by seat type (economy, business, first class)
+    private static final String[] LETTERS = {"ABCDEF", "ABCD", "ABCD"};
+
+    private final int[] capacity = new int[3];
+    private final int[] firstRow = new int[3];
+    private final BitSet[] taken = new BitSet[3];
+
+    // REQUIRES: non-negative number of seats of each type
+    // EFFECTS: constructs a seat map with the given number of economy, business and first class seats,
+    //          all of them free
+    public SeatMap(int economySeats, int businessSeats, int firstClassSeats) {
+        capacity[0] = economySeats;
+        capacity[1] = businessSeats;
+        capacity[2] = firstClassSeats;
+        int row = 1;
+        for (int cabin = 2; cabin >= 0; cabin--) {
+            firstRow[cabin] = row;
+            row += (capacity[cabin] + LETTERS[cabin].length() - 1) / LETTERS[cabin].length();
+            taken[cabin] = new BitSet(capacity[cabin]);
+        }
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of seats of the given type
+    public int getCapacity(int seat) {
+        return capacity[seat - 1];
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of seats of the given type that are taken
+    public synchronized int getTakenSeats(int seat) {
+        return taken[seat - 1].cardinality();
+    }
+
+    // EFFECTS: returns true if the seat with the given number exists and is taken
+    public synchronized boolean isTaken(String seatNumber) {
+        int cabin = cabinOf(seatNumber);
+        return cabin >= 0 && taken[cabin].get(indexOf(cabin, seatNumber));
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: takes the frontmost free window seat of the given type, or the frontmost free seat if every
+    //          window seat is taken; returns its seat number, or null if every seat of the type is taken
+    public synchronized String assign(int seat) {
+        String window = assignWindow(seat);
+        if (window != null) {
+            return window;
+        }
+        int cabin = seat - 1;
+        int index = taken[cabin].nextClearBit(0);
+        return index < capacity[cabin] ? take(cabin, index) : null;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: takes the frontmost free window seat of the given type; returns its seat number, or null if
+    //          every window seat of the type is taken
+    public synchronized String assignWindow(int seat) {
+        int cabin = seat - 1;
+        int perRow = LETTERS[cabin].length();
+        for (int start = 0; start < capacity[cabin]; start += perRow) {
+            if (!taken[cabin].get(start)) {
+                return take(cabin, start);
+            }
+            int right = start + perRow - 1;
+            if (right < capacity[cabin] && !taken[cabin].get(right)) {
+                return take(cabin, right);
+            }
+        }
+        return null;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class), count >= 1
+    // MODIFIES: this
+    // EFFECTS: takes the frontmost block of count free seats of the given type next to each other in one row,
+    //          on one side of the aisle if count fits there; returns their seat numbers from left to right, or
+    //          null and takes nothing if there is no such block
+    public synchronized List<String> assignAdjacent(int seat, int count) {
+        int cabin = seat - 1;
+        int perRow = LETTERS[cabin].length();
+        int side = perRow / 2;
+        if (count > perRow) {
+            return null;
+        }
+        for (int row = 0; row * perRow < capacity[cabin]; row++) {
+            for (int letter = 0; letter + count <= perRow; letter++) {
+                boolean crossesAisle = letter < side && letter + count > side;
+                int start = row * perRow + letter;
+                if ((count <= side && crossesAisle) || start + count > capacity[cabin]) {
+                    continue;
+                }
+                int next = taken[cabin].nextSetBit(start);
+                if (next < 0 || next >= start + count) {
+                    List<String> seatNumbers = new ArrayList<>(count);
+                    for (int i = start; i < start + count; i++) {
+                        seatNumbers.add(take(cabin, i));
+                    }
+                    return seatNumbers;
+                }
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes the seat with the given number; returns false if it doesn't exist or was already taken
+    public synchronized boolean reserve(String seatNumber) {
+        int cabin = cabinOf(seatNumber);
+        if (cabin < 0 || taken[cabin].get(indexOf(cabin, seatNumber))) {
+            return false;
+        }
+        taken[cabin].set(indexOf(cabin, seatNumber));
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: frees the seat with the given number; returns false if it doesn't exist or wasn't taken
+    public synchronized boolean release(String seatNumber) {
+        int cabin = cabinOf(seatNumber);
+        if (cabin < 0) {
+            return false;
+        }
+        int index = indexOf(cabin, seatNumber);
+        if (!taken[cabin].get(index)) {
+            return false;
+        }
+        taken[cabin].clear(index);
+        return true;
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: marks exactly the given seats of the given type as taken, by their position from the front
+    //          of that seat type's rows; positions past the last seat are ignored
+    public synchronized void setTakenSeats(int seat, BitSet seats) {
+        int cabin = seat - 1;
+        taken[cabin].clear();
+        taken[cabin].or(seats);
+        taken[cabin].clear(capacity[cabin], Math.max(capacity[cabin], seats.length()));
+    }
+
+    // EFFECTS: returns a copy of this seat map that later assignments to either map don't change
+    public synchronized SeatMap copy() {
+        SeatMap copy = new SeatMap(capacity[0], capacity[1], capacity[2]);
+        for (int cabin = 0; cabin < 3; cabin++) {
+            copy.taken[cabin].or(taken[cabin]);
+        }
+        return copy;
+    }
+
+    // EFFECTS: converts the seat map into a json object, with the taken seats of each type as a base64 bitmap
+    @Override
+    public synchronized JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("economy seats", capacity[0]);
+        json.put("business seats", capacity[1]);
+        json.put("first class seats", capacity[2]);
+        JSONArray bitmaps = new JSONArray();
+        for (BitSet seats : taken) {
+            bitmaps.put(Base64.getEncoder().encodeToString(seats.toByteArray()));
+        }
+        json.put("taken", bitmaps);
+        return json;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the seat at the given position of the cabin as taken and returns its seat number
+    private String take(int cabin, int index) {
+        taken[cabin].set(index);
+        int perRow = LETTERS[cabin].length();
+        return (firstRow[cabin] + index / perRow) + String.valueOf(LETTERS[cabin].charAt(index % perRow));
+    }
+
+    // EFFECTS: returns the cabin (0-economy, 1-business, 2-first-class) of the seat with the given number,
+    //          or -1 if no such seat exists
+    private int cabinOf(String seatNumber) {
+        if (seatNumber == null || seatNumber.length() < 2) {
+            return -1;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        for (int cabin = 0; cabin < 3; cabin++) {
+            int perRow = LETTERS[cabin].length();
+            int letter = LETTERS[cabin].indexOf(seatNumber.charAt(seatNumber.length() - 1));
+            int index = (row - firstRow[cabin]) * perRow + letter;
+            if (row >= firstRow[cabin] && letter >= 0 && index < capacity[cabin]) {
+                return cabin;
+            }
+        }
+        return -1;
+    }
+
+    // REQUIRES: seat number of an existing seat in the given cabin
+    // EFFECTS: returns the position of the seat from the front of the cabin's rows
+    private int indexOf(int cabin, String seatNumber) {
+        int row = Integer.parseInt(seatNumber.substring(0, seatNumber.length() - 1));
+        int letter = LETTERS[cabin].indexOf(seatNumber.charAt(seatNumber.length() - 1));
+        return (row - firstRow[cabin]) * LETTERS[cabin].length() + letter;
+    }
+}
@@ -0,0 +1,54 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// First-come, first-served queues of passengers waiting for a seat on a full flight, one per seat type.
+// The queues are lock-free, so passengers can join and be promoted from many threads at once.
+public class Waitlist {
+
+    private final List<Queue<Passenger>> queues = new ArrayList<>(3);
+
+    // EFFECTS: constructs empty economy, business and first class waitlists
+    public Waitlist() {
+        for (int i = 0; i < 3; i++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: adds the passenger to the back of the waitlist of the given seat type
+    public void add(int seat, Passenger passenger) {
+        queues.get(seat - 1).add(passenger);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: removes and returns the passenger at the front of the waitlist of the given seat type,
+    //          or returns null if nobody is waiting
+    public Passenger poll(int seat) {
+        return queues.get(seat - 1).poll();
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // MODIFIES: this
+    // EFFECTS: removes the passenger from the waitlist of the given seat type; returns true if they were on it
+    public boolean remove(int seat, Passenger passenger) {
+        return queues.get(seat - 1).remove(passenger);
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns true if nobody is waiting for the given seat type
+    public boolean isEmpty(int seat) {
+        return queues.get(seat - 1).isEmpty();
+    }
+
+    // REQUIRES: seat type in int (1-economy, 2-business, 3-first-class)
+    // EFFECTS: returns the number of passengers waiting for the given seat type
+    public int size(int seat) {
+        return queues.get(seat - 1).size();
+    }
+}
@@ -0,0 +1,123 @@
+package performance;
+
+import model.BookingCoordinator;
+import model.BookingEngine;
+import model.EventLog;
+import model.Flight;
+import model.Passenger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compares booking throughput of the lock-striped BookingCoordinator with the single-writer BookingEngine
+// as the number of booking threads grows. Every thread books and cancels a seat for its own passenger on
+// one of a few popular flights, so all threads fight over the same handful of flights.
+// Threads using the engine keep up to PIPELINE commands in flight before waiting for their results.
+// Every booking and cancellation is logged, so the event log is cleared after each run.
+public class BookingEngineBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final int FLIGHTS = 4;
+    private static final int PIPELINE = 32;
+    private static final long WARMUP_MILLIS = 500;
+    private static final long RUN_MILLIS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%8s %20s %20s%n", "threads", "coordinator ops/sec", "engine ops/sec");
+        for (int threads : THREADS) {
+            run(threads, false, WARMUP_MILLIS);
+            long locked = run(threads, false, RUN_MILLIS);
+            run(threads, true, WARMUP_MILLIS);
+            long engine = run(threads, true, RUN_MILLIS);
+            System.out.printf("%8d %20d %20d%n", threads, locked * 1000 / RUN_MILLIS, engine * 1000 / RUN_MILLIS);
+        }
+    }
+
+    // EFFECTS: runs the given number of booking threads through the coordinator, or through the engine if
+    //          useEngine, for millis milliseconds and returns the number of bookings and cancellations applied
+    static long run(int threads, boolean useEngine, long millis) throws InterruptedException {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < FLIGHTS; i++) {
+            flights.add(new Flight("AC", i, LocalDateTime.of(2022, 1, 1, 8, 0),
+                    LocalDateTime.of(2022, 1, 1, 12, 0), "YVR", "YYZ", 300, threads, 0, 0));
+        }
+        BookingCoordinator coordinator = new BookingCoordinator();
+        BookingEngine engine = new BookingEngine();
+        engine.start();
+        LongAdder operations = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Passenger passenger = new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "" + i);
+            Flight flight = flights.get(i % FLIGHTS);
+            Runnable work = useEngine
+                    ? () -> bookWithEngine(engine, passenger, flight, operations, running, start)
+                    : () -> bookWithCoordinator(coordinator, passenger, flight, operations, running, start);
+            Thread worker = new Thread(work);
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        engine.stop();
+        EventLog.getInstance().clear();
+        for (Flight flight : flights) {
+            if (flight.getAvailableEconomySeats() != threads) {
+                throw new IllegalStateException("Seat count drifted to " + flight.getAvailableEconomySeats());
+            }
+        }
+        return operations.sum();
+    }
+
+    // EFFECTS: books and cancels the flight for the passenger through the coordinator until running is false
+    private static void bookWithCoordinator(BookingCoordinator coordinator, Passenger passenger, Flight flight,
+                                            LongAdder operations, AtomicBoolean running, CountDownLatch start) {
+        if (!await(start)) {
+            return;
+        }
+        while (running.get()) {
+            coordinator.book(passenger, flight, 1);
+            coordinator.cancel(passenger, flight.getId());
+            operations.add(2);
+        }
+    }
+
+    // EFFECTS: books and cancels the flight for the passenger through the engine until running is false,
+    //          waiting for results after every PIPELINE commands
+    private static void bookWithEngine(BookingEngine engine, Passenger passenger, Flight flight,
+                                       LongAdder operations, AtomicBoolean running, CountDownLatch start) {
+        if (!await(start)) {
+            return;
+        }
+        while (running.get()) {
+            CompletableFuture<Boolean> last = null;
+            for (int i = 0; i < PIPELINE; i += 2) {
+                engine.book(passenger, flight, 1);
+                last = engine.cancel(passenger, flight.getId());
+            }
+            last.join();
+            operations.add(PIPELINE);
+        }
+    }
+
+    // EFFECTS: waits for the start signal; returns false if interrupted
+    private static boolean await(CountDownLatch start) {
+        try {
+            start.await();
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package performance;
+
+import model.Flight;
+import model.FlightSchedule;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Measures the cost of resolving a flight by id through FlightSchedule.getFlight against
+// scanning the whole schedule, for schedules of increasing size
+public class FlightLookupBenchmark {
+
+    private static final int[] SIZES = {1_000, 10_000, 100_000, 250_000};
+    private static final int LOOKUPS = 2_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %18s %18s%n", "flights", "getFlight (ns/op)", "scan (ns/op)");
+        for (int size : SIZES) {
+            FlightSchedule flightSchedule = createSchedule(size);
+            UUID[] ids = pickIds(flightSchedule.getFlightSchedule(), new Random(size));
+            long indexed = 0;
+            long scanned = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                indexed = timeIndexed(flightSchedule, ids);
+                scanned = timeScanned(flightSchedule.getFlightSchedule(), ids);
+            }
+            System.out.printf("%10d %18d %18d%n", size, indexed, scanned);
+        }
+    }
+
+    // EFFECTS: returns a flight schedule with the given number of flights
+    static FlightSchedule createSchedule(int size) {
+        FlightSchedule flightSchedule = new FlightSchedule();
+        LocalDateTime departure = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < size; i++) {
+            flightSchedule.addFlight(new Flight("AC", i, departure.plusMinutes(i),
+                    departure.plusMinutes(i + 120), "YVR", "YYZ", 300, 200, 80, 20));
+        }
+        return flightSchedule;
+    }
+
+    // EFFECTS: returns the ids of randomly chosen flights
+    private static UUID[] pickIds(List<Flight> flights, Random random) {
+        UUID[] ids = new UUID[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = flights.get(random.nextInt(flights.size())).getId();
+        }
+        return ids;
+    }
+
+    // EFFECTS: returns the average time in nanoseconds to resolve each id with getFlight
+    private static long timeIndexed(FlightSchedule flightSchedule, UUID[] ids) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            found += flightSchedule.getFlight(id).getFlightNumber();
+        }
+        return average(start, found);
+    }
+
+    // EFFECTS: returns the average time in nanoseconds to resolve each id by scanning the flights
+    private static long timeScanned(List<Flight> flights, UUID[] ids) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (UUID id : ids) {
+            for (Flight flight : flights) {
+                if (flight.getId().equals(id)) {
+                    found += flight.getFlightNumber();
+                    break;
+                }
+            }
+        }
+        return average(start, found);
+    }
+
+    // EFFECTS: returns the time elapsed since start divided by the number of lookups;
+    //          found is only used so the lookups can't be optimized away
+    private static long average(long start, long found) {
+        long elapsed = System.nanoTime() - start;
+        return found < 0 ? -1 : elapsed / LOOKUPS;
+    }
+}
@@ -0,0 +1,101 @@
+package performance;
+
+import model.Account;
+import model.EventLog;
+import model.Flight;
+import model.FlightSchedule;
+import model.FlightSchedule;
+import model.Passenger;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.JsonStreamWriter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+// Compares loading an accounts file with JsonReader, which builds the whole document in memory first, against
+// JsonStreamReader, which builds one passenger at a time, for files of increasing size. Reports throughput and
+// the peak heap in use while reading; the peak includes the loaded accounts themselves, which both readers
+// have to build. Every loaded passenger is logged, so the event log is cleared after each read.
+public class JsonReaderBenchmark {
+
+    private static final int[] PASSENGERS = {1_000, 10_000, 100_000};
+    private static final int BOOKINGS = 3;
+    private static final int PASSENGERS_PER_FLIGHT = 10;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%10s %8s %14s %14s %14s %14s%n", "passengers", "MB",
+                "tree MB/sec", "stream MB/sec", "tree peak MB", "stream peak MB");
+        for (int passengers : PASSENGERS) {
+            FlightSchedule flightSchedule = FlightLookupBenchmark.createSchedule(passengers / PASSENGERS_PER_FLIGHT);
+            Path file = createFile(passengers, flightSchedule);
+            double megabytes = Files.size(file) / 1e6;
+            long[] tree = new long[2];
+            long[] stream = new long[2];
+            for (int round = 0; round < ROUNDS; round++) {
+                tree = time(file, flightSchedule, false);
+                stream = time(file, flightSchedule, true);
+            }
+            System.out.printf("%10d %8.1f %14.1f %14.1f %14.1f %14.1f%n", passengers, megabytes,
+                    megabytes * 1e9 / tree[0], megabytes * 1e9 / stream[0], tree[1] / 1e6, stream[1] / 1e6);
+            Files.delete(file);
+        }
+    }
+
+    // EFFECTS: writes an accounts file with the given number of passengers, each booked on a few flights
+    //          of the schedule, to a temporary file and returns its path
+    static Path createFile(int passengers, FlightSchedule flightSchedule) throws IOException {
+        List<Flight> flights = flightSchedule.getFlightSchedule();
+        int flightCount = flights.size();
+        Account account = new Account();
+        for (int i = 0; i < passengers; i++) {
+            Passenger passenger = new Passenger("First" + i, "Last" + i, "p" + i + "@mail.com", "pw",
+                    LocalDate.of(2000, 1, 1), "604" + i);
+            for (int j = 0; j < BOOKINGS; j++) {
+                passenger.addBookedFlight(flights.get((i + j) % flightCount), 1);
+            }
+            account.loadPassenger(passenger.getEmailAddress(), passenger);
+        }
+        EventLog.getInstance().clear();
+        Path file = Files.createTempFile("accounts", ".json");
+        JsonStreamWriter writer = new JsonStreamWriter(file.toString());
+        writer.open();
+        writer.write(account);
+        writer.close();
+        return file;
+    }
+
+    // EFFECTS: reads the accounts file with the streaming reader if streaming, or with JsonReader otherwise,
+    //          resolving bookings against the schedule, and returns the time taken in nanoseconds and the peak
+    //          bytes of heap in use while reading
+    private static long[] time(Path file, FlightSchedule flightSchedule, boolean streaming) throws IOException {
+        System.gc();
+        List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans();
+        for (MemoryPoolMXBean pool : pools) {
+            pool.resetPeakUsage();
+        }
+        long start = System.nanoTime();
+        Account account = streaming
+                ? new JsonStreamReader(file.toString()).readAccounts(flightSchedule)
+                : new JsonReader(file.toString()).readAccounts(flightSchedule);
+        long elapsed = System.nanoTime() - start;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        if (account.isEmpty()) {
+            throw new IllegalStateException("No passengers read from " + file);
+        }
+        EventLog.getInstance().clear();
+        return new long[] {elapsed, peak};
+    }
+}
@@ -0,0 +1,64 @@
+package performance;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts latencies in log-linear buckets: every power of two is split into 32 equal buckets, so any
+// percentile read back is at most about 3% above the true value, whatever the range of latencies.
+// Recording is a single atomic increment, so many threads can share one histogram.
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray((64 - SUB_BITS + 1) * SUB_BUCKETS);
+
+    // REQUIRES: nanos >= 0
+    // MODIFIES: this
+    // EFFECTS: counts one operation that took the given number of nanoseconds
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(nanos));
+    }
+
+    // EFFECTS: returns the number of operations recorded
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    // REQUIRES: 0 < percentile <= 100
+    // EFFECTS: returns the latency in nanoseconds that the given percentage of operations stayed within,
+    //          or 0 if nothing was recorded
+    public long getPercentile(double percentile) {
+        long target = (long) Math.ceil(getCount() * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen > 0 && seen >= target) {
+                return upperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    // EFFECTS: returns the index of the bucket counting the given latency
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    // EFFECTS: returns the largest latency counted by the bucket with the given index
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >> SUB_BITS) - 1;
+        long lower = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,264 @@
+package performance;
+
+import model.Account;
+import model.BookedFlight;
+import model.EventLog;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Simulates many passengers using the model at once. Worker threads drive a mix of sign ups, logins
+// (Account.matchPassword), searches (FlightSchedule.getFlightsByDestination), bookings
+// (Account.bookFlight) and cancellations (Account.cancelFlight), optionally paced to a
+// target rate, then report throughput and p50/p99/p99.9 latency per operation and check that every seat
+// taken from a flight is accounted for by exactly one booking.
+//
+// Arguments are key=value pairs, for example: passengers=10000 flights=500 threads=64 rate=50000 seconds=10
+// A rate of 0 runs every thread flat out. When paced, latency is measured from when each operation was
+// due to start, so a stalled thread shows up in the latency of the operations queued behind it.
+// Each passenger belongs to one worker thread, since a passenger's own bookings aren't meant to be
+// changed from several threads at once.
+public class LoadGenerator {
+
+    private static final String[] OPERATIONS = {"signup", "login", "search", "book", "cancel"};
+    private static final int[] MIX = {5, 30, 40, 15, 10};
+    private static final String[] AIRPORTS = {"YVR", "YYZ", "YEG", "YYC", "YUL", "YOW", "YWG", "YHZ",
+        "SEA", "SFO", "LAX", "JFK", "ORD", "HND", "LHR", "CDG"};
+    private static final int SEATS_PER_CABIN = 50;
+
+    private final int passengers;
+    private final int flights;
+    private final int threads;
+    private final long rate;
+    private final long seconds;
+
+    private final Account account = new Account();
+    private final FlightSchedule flightSchedule = new FlightSchedule();
+    private final List<Flight> flightList = new ArrayList<>();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+    private final AtomicInteger signUps = new AtomicInteger();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    // EFFECTS: constructs a load generator with the given number of passengers and flights, worker threads,
+    //          target operations per second (0 for no limit) and duration
+    public LoadGenerator(int passengers, int flights, int threads, long rate, long seconds) {
+        this.passengers = passengers;
+        this.flights = flights;
+        this.threads = threads;
+        this.rate = rate;
+        this.seconds = seconds;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        LoadGenerator generator = new LoadGenerator(
+                Integer.parseInt(options.getOrDefault("passengers", "10000")),
+                Integer.parseInt(options.getOrDefault("flights", "500")),
+                Integer.parseInt(options.getOrDefault("threads", "64")),
+                Long.parseLong(options.getOrDefault("rate", "0")),
+                Long.parseLong(options.getOrDefault("seconds", "10")));
+        generator.setUp();
+        generator.run();
+        generator.report();
+        if (!generator.checkSeats()) {
+            System.exit(1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: signs up the passengers and adds the flights between random airports
+    void setUp() {
+        for (int i = 0; i < passengers; i++) {
+            account.signUp(email(i), passenger(i));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime departure = LocalDateTime.of(2022, 6, 1, 6, 0);
+        for (int i = 0; i < flights; i++) {
+            int from = random.nextInt(AIRPORTS.length);
+            int to = (from + 1 + random.nextInt(AIRPORTS.length - 1)) % AIRPORTS.length;
+            Flight flight = new Flight("AC", i, departure.plusMinutes(37L * i), departure.plusMinutes(37L * i + 240),
+                    AIRPORTS[from], AIRPORTS[to], 3 * SEATS_PER_CABIN, SEATS_PER_CABIN, SEATS_PER_CABIN,
+                    SEATS_PER_CABIN);
+            flightSchedule.addFlight(flight);
+            flightList.add(flight);
+        }
+        EventLog.getInstance().clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs the worker threads for the configured number of seconds, clearing the event log every
+    //          second so it doesn't grow with every simulated booking
+    void run() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> work(worker, start), "load-" + i);
+            workers.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (long second = 0; second < seconds; second++) {
+            Thread.sleep(1000);
+            EventLog.getInstance().clear();
+        }
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    // EFFECTS: runs operations for the passengers of the given worker until the generator stops
+    private void work(int worker, CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(threads) / rate : 0;
+        long due = System.nanoTime();
+        while (running.get()) {
+            if (interval > 0) {
+                due += interval;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else {
+                due = System.nanoTime();
+            }
+            int operation = pickOperation(random);
+            operate(operation, worker, random);
+            latencies[operation].record(System.nanoTime() - due);
+        }
+    }
+
+    // EFFECTS: picks an operation according to the mix
+    private static int pickOperation(ThreadLocalRandom random) {
+        int pick = random.nextInt(100);
+        for (int i = 0; i < MIX.length; i++) {
+            pick -= MIX[i];
+            if (pick < 0) {
+                return i;
+            }
+        }
+        return MIX.length - 1;
+    }
+
+    // MODIFIES: this, a passenger of the worker, a flight
+    // EFFECTS: runs one operation of the given kind
+    private void operate(int operation, int worker, ThreadLocalRandom random) {
+        switch (operation) {
+            case 0:
+                int id = passengers + signUps.getAndIncrement();
+                account.signUp(email(id), passenger(id));
+                break;
+            case 1:
+                int login = random.nextInt(passengers);
+                account.matchPassword(email(login), "pw" + login);
+                break;
+            case 2:
+                flightSchedule.getFlightsByDestination(AIRPORTS[random.nextInt(AIRPORTS.length)],
+                        AIRPORTS[random.nextInt(AIRPORTS.length)]);
+                break;
+            case 3:
+                Passenger booker = ownPassenger(worker, random);
+                Flight flight = flightList.get(random.nextInt(flightList.size()));
+                if (booker != null && !booker.hasFlight(flight)) {
+                    account.bookFlight(booker, flight, 1 + random.nextInt(3));
+                }
+                break;
+            default:
+                Passenger canceller = ownPassenger(worker, random);
+                if (canceller != null) {
+                    List<BookedFlight> booked = canceller.getBookedFlights();
+                    if (!booked.isEmpty()) {
+                        account.cancelFlight(canceller, booked.get(random.nextInt(booked.size())).getFlight().getId());
+                    }
+                }
+        }
+    }
+
+    // EFFECTS: returns a random one of the passengers that belong to the given worker, or null if it has none
+    private Passenger ownPassenger(int worker, ThreadLocalRandom random) {
+        int owned = (passengers - worker + threads - 1) / threads;
+        if (owned <= 0) {
+            return null;
+        }
+        return account.retrievePassenger(email(worker + threads * random.nextInt(owned)));
+    }
+
+    // EFFECTS: prints throughput and latency percentiles of every operation
+    void report() {
+        System.out.printf("%d passengers, %d flights, %d threads, %s, %d seconds%n", passengers, flights, threads,
+                rate > 0 ? rate + " ops/sec target" : "unpaced", seconds);
+        System.out.printf("%8s %12s %12s %10s %10s %10s%n", "op", "count", "ops/sec", "p50 (us)", "p99 (us)",
+                "p99.9 (us)");
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            LatencyHistogram histogram = latencies[i];
+            System.out.printf("%8s %12d %12d %10.1f %10.1f %10.1f%n", OPERATIONS[i], histogram.getCount(),
+                    histogram.getCount() / seconds, histogram.getPercentile(50) / 1000.0,
+                    histogram.getPercentile(99) / 1000.0, histogram.getPercentile(99.9) / 1000.0);
+        }
+    }
+
+    // EFFECTS: checks that every seat missing from each cabin of each flight is held by exactly one booking
+    //          and that no cabin went negative; prints the result and returns true if every flight adds up
+    boolean checkSeats() {
+        Map<Flight, int[]> booked = new HashMap<>();
+        int bookings = 0;
+        for (Passenger passenger : account.getPassengers()) {
+            for (BookedFlight bookedFlight : passenger.getBookedFlights()) {
+                booked.computeIfAbsent(bookedFlight.getFlight(), f -> new int[3])[bookedFlight.getSeat() - 1]++;
+                bookings++;
+            }
+        }
+        int mismatches = 0;
+        for (Flight flight : flightList) {
+            int[] taken = booked.getOrDefault(flight, new int[3]);
+            for (int seat = 1; seat <= 3; seat++) {
+                int available = flight.getAvailableSeats(seat);
+                if (available < 0 || available + taken[seat - 1] != SEATS_PER_CABIN) {
+                    mismatches++;
+                    System.out.printf("Flight %s%d seat type %d: %d available + %d booked != %d%n",
+                            flight.getAirlineCode(), flight.getFlightNumber(), seat, available, taken[seat - 1],
+                            SEATS_PER_CABIN);
+                }
+            }
+        }
+        System.out.printf("Seat check: %d bookings over %d flights, %d mismatches%n", bookings, flightList.size(),
+                mismatches);
+        return mismatches == 0;
+    }
+
+    // EFFECTS: returns the email of the synthetic passenger with the given number
+    private static String email(int id) {
+        return "passenger" + id + "@load.test";
+    }
+
+    // EFFECTS: returns a new synthetic passenger with the given number
+    private static Passenger passenger(int id) {
+        return new Passenger("Passenger", "" + id, email(id), "pw" + id, LocalDate.of(1990, 1, 1), "" + id);
+    }
+}
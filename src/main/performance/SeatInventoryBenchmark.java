@@ -0,0 +1,74 @@
+package performance;
+
+import model.Flight;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Measures booking throughput on a single flight as the number of booking threads grows.
+// Every thread repeatedly books an economy seat with Flight.tryBook and gives it back with
+// Flight.release, so all threads contend on the same seat counter.
+public class SeatInventoryBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long WARMUP_MILLIS = 500;
+    private static final long RUN_MILLIS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%8s %16s %12s%n", "threads", "bookings/sec", "sold out");
+        for (int threads : THREADS) {
+            run(threads, WARMUP_MILLIS);
+            long[] result = run(threads, RUN_MILLIS);
+            System.out.printf("%8d %16d %12d%n", threads, result[0] * 1000 / RUN_MILLIS, result[1]);
+        }
+    }
+
+    // EFFECTS: runs the given number of booking threads against one flight for millis milliseconds and
+    //          returns the number of successful bookings and the number of sold out attempts
+    static long[] run(int threads, long millis) throws InterruptedException {
+        Flight flight = new Flight("AC", 1, LocalDateTime.of(2022, 1, 1, 8, 0),
+                LocalDateTime.of(2022, 1, 1, 12, 0), "YVR", "YYZ", 300, threads / 2 + 1, 0, 0);
+        LongAdder booked = new LongAdder();
+        LongAdder soldOut = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> book(flight, booked, soldOut, running, start));
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        Thread.sleep(millis);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (flight.getAvailableEconomySeats() != threads / 2 + 1) {
+            throw new IllegalStateException("Seat count drifted to " + flight.getAvailableEconomySeats());
+        }
+        return new long[] {booked.sum(), soldOut.sum()};
+    }
+
+    // EFFECTS: books and releases seats on the flight until running is false
+    private static void book(Flight flight, LongAdder booked, LongAdder soldOut, AtomicBoolean running,
+                             CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            return;
+        }
+        while (running.get()) {
+            if (flight.tryBook(1)) {
+                booked.increment();
+                flight.release(1);
+            } else {
+                soldOut.increment();
+            }
+        }
+    }
+}
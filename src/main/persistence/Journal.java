@@ -0,0 +1,232 @@
+package persistence;
+
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Appends changes to a journal file, one JSON object per line, each numbered with the next sequence number.
+// Appends are written by a single background thread with group commit: every entry queued while the previous
+// batch was being written goes out in one write followed by one fsync, so many concurrent changes share the
+// cost of a single sync. Each append returns a future that completes once its entry is on disk.
+public class Journal implements Closeable {
+
+    private final String destination;
+    private final Object fileLock = new Object();
+    private final Thread writer;
+    private FileChannel channel;
+    // the failure that left a torn batch in the file, guarded by fileLock, or null if there is none
+    private IOException broken;
+
+    private List<String> pending = new ArrayList<>();
+    private List<CompletableFuture<Long>> waiting = new ArrayList<>();
+    private long lastSequence;
+    private long syncs;
+    private boolean closed;
+
+    // EFFECTS: opens the journal at destination for appending, creating it if it doesn't exist, and continues
+    //          numbering after the last entry already in it; throws IOException if it can't be opened or read
+    public Journal(String destination) throws IOException {
+        this.destination = destination;
+        this.lastSequence = recover(Paths.get(destination));
+        this.channel = FileChannel.open(Paths.get(destination), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeBatches, "journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    // EFFECTS: returns the sequence number of the last entry appended
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    // EFFECTS: returns the number of times the journal has been synced to disk
+    public synchronized long getSyncs() {
+        return syncs;
+    }
+
+    // MODIFIES: this, entry
+    // EFFECTS: numbers the entry with the next sequence number under "seq" and queues it to be written;
+    //          returns a future completing with its sequence number once it is on disk, or exceptionally if
+    //          the journal is closed or can't be written
+    public synchronized CompletableFuture<Long> append(JSONObject entry) {
+        CompletableFuture<Long> written = new CompletableFuture<>();
+        if (closed) {
+            written.completeExceptionally(new IOException("Journal is closed: " + destination));
+            return written;
+        }
+        entry.put("seq", ++lastSequence);
+        pending.add(entry.toString());
+        waiting.add(written);
+        notifyAll();
+        return written;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every entry numbered before sequence from the journal, because a snapshot already includes
+    //          them. The entry numbered sequence is kept so that numbering carries on from it after a restart;
+    //          replay skips it like the others. The kept entries are copied to a new file that atomically replaces
+    //          the journal, so a crash leaves either the old or the new journal, never a partial one.
+    public void truncateThrough(long sequence) throws IOException {
+        Path path = Paths.get(destination);
+        Path temp = Paths.get(destination + ".tmp");
+        synchronized (fileLock) {
+            StringBuilder kept = new StringBuilder();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && new JSONObject(line).getLong("seq") >= sequence) {
+                    kept.append(line).append('\n');
+                }
+            }
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(kept.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out every queued entry, then stops the writer and closes the file
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (fileLock) {
+            channel.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes queued entries in batches until the journal is closed and nothing is left to write
+    private void writeBatches() {
+        while (true) {
+            List<String> lines;
+            List<CompletableFuture<Long>> futures;
+            long sequence;
+            synchronized (this) {
+                while (pending.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                lines = pending;
+                futures = waiting;
+                sequence = lastSequence - lines.size();
+                pending = new ArrayList<>();
+                waiting = new ArrayList<>();
+            }
+            try {
+                write(lines);
+                for (CompletableFuture<Long> future : futures) {
+                    future.complete(++sequence);
+                }
+            } catch (IOException e) {
+                futures.forEach(future -> future.completeExceptionally(e));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the lines to the file in one write and syncs it to disk. If that fails part way, the file
+    //          is cut back to where the batch started, so later batches are never appended after a torn one that
+    //          replay would stop at; if even that fails, every later batch fails too, leaving the torn batch last
+    //          for recovery to cut off. Throws IOException if the batch couldn't be written
+    private void write(List<String> lines) throws IOException {
+        StringBuilder batch = new StringBuilder();
+        for (String line : lines) {
+            batch.append(line).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        synchronized (fileLock) {
+            if (broken != null) {
+                throw new IOException("Journal has a torn batch that couldn't be cut off: " + destination, broken);
+            }
+            long start = channel.size();
+            try {
+                writeFully(channel, buffer);
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    channel.truncate(start);
+                    channel.force(false);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                    broken = e;
+                }
+                throw e;
+            }
+        }
+        synchronized (this) {
+            syncs++;
+        }
+    }
+
+    // MODIFIES: channel, buffer
+    // EFFECTS: writes everything left in the buffer to the channel; throws IOException if a write fails
+    void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // MODIFIES: file at path
+    // EFFECTS: cuts off a torn last line left by a crash mid-write, which was never acknowledged, and returns the
+    //          sequence number of the last entry in the journal, or 0 if there is none
+    private static long recover(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end < bytes.length) {
+            try (FileChannel truncate = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                truncate.truncate(end);
+            }
+        }
+        long last = 0;
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                last = Math.max(last, new JSONObject(line).getLong("seq"));
+            }
+        }
+        return last;
+    }
+}
@@ -2,6 +2,7 @@ package persistence;
 
 import model.*;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -18,18 +19,20 @@ import java.util.stream.Stream;
 // structure taken from JsonSerializationDemo
 public class JsonReader {
     private final String source;
+    private long journalSequence;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
     }
 
-    // EFFECTS: reads accounts from file and returns it;
-    // throws IOException if an error occurs reading data from file
-    public Account readAccounts() throws IOException {
+    // EFFECTS: reads accounts from file, resolving every booking against the flights in flightSchedule,
+    //          and returns it; throws IOException if an error occurs reading data from file
+    public Account readAccounts(FlightSchedule flightSchedule) throws IOException {
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
-        return parseAccounts(jsonObject);
+        journalSequence = jsonObject.optLong("journal sequence", 0);
+        return parseAccounts(jsonObject, flightSchedule);
     }
 
     // EFFECTS: reads flights from file and returns it;
@@ -37,9 +40,147 @@ public class JsonReader {
     public FlightSchedule readFlights() throws IOException {
         String jsonData = readFile(source);
         JSONObject jsonObject = new JSONObject(jsonData);
+        journalSequence = jsonObject.optLong("journal sequence", 0);
         return parseFlightSchedule(jsonObject);
     }
 
+    // EFFECTS: returns the sequence number of the last journal entry included in the snapshot read last,
+    //          or 0 if it was written without a journal
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // REQUIRES: account that isn't recording to a journal
+    // MODIFIES: account, flightSchedule
+    // EFFECTS: reads source as a journal and applies every change recorded in it to the account and flight
+    //          schedule in order; returns the sequence number of the last change, or 0 if there is none or
+    //          source doesn't exist. Throws IOException if an error occurs reading data from file
+    public long replayJournal(Account account, FlightSchedule flightSchedule) throws IOException {
+        return replayJournal(account, flightSchedule, 0, 0);
+    }
+
+    // REQUIRES: account that isn't recording to a journal
+    // MODIFIES: account, flightSchedule
+    // EFFECTS: reads source as a journal and applies the changes recorded in it to the account and flight
+    //          schedule in order, skipping changes to passengers or flights that no longer exist. Changes up to
+    //          accountsSequence are already in the account's snapshot and changes up to flightsSequence are
+    //          already in the flights' snapshot, so each is only applied to the side that doesn't include it yet.
+    //          Returns the sequence number of the last change, or 0 if there is none or source doesn't exist.
+    //          Throws IOException if an error occurs reading data from file
+    public long replayJournal(Account account, FlightSchedule flightSchedule, long accountsSequence,
+                              long flightsSequence) throws IOException {
+        if (!Files.exists(Paths.get(source))) {
+            return 0;
+        }
+        Map<UUID, Passenger> passengers = new HashMap<>();
+        for (Passenger passenger : account.getPassengers()) {
+            passengers.put(passenger.getId(), passenger);
+        }
+        long last = 0;
+        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
+            for (String line : (Iterable<String>) stream::iterator) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                JSONObject entry;
+                try {
+                    entry = new JSONObject(line);
+                } catch (JSONException e) {
+                    break;
+                }
+                last = entry.getLong("seq");
+                replayEntry(account, flightSchedule, passengers, entry, last > accountsSequence,
+                        last > flightsSequence);
+            }
+        }
+        return last;
+    }
+
+    // MODIFIES: account, flightSchedule, passengers
+    // EFFECTS: applies one journal entry to the account if toAccounts and to the flight schedule if toFlights.
+    //          Bookings name their passenger by id, which passengers maps to the registered passenger; older
+    //          entries only have the email. A booking whose passenger is gone still takes or gives back its
+    //          seat, since the flight's seats changed when it happened.
+    private void replayEntry(Account account, FlightSchedule flightSchedule, Map<UUID, Passenger> passengers,
+                             JSONObject entry, boolean toAccounts, boolean toFlights) {
+        String email = entry.getString("email");
+        Passenger passenger = entry.has("id") ? passengers.get(UUID.fromString(entry.getString("id")))
+                : account.retrievePassenger(email);
+        String op = entry.getString("op");
+        if (op.equals("book") || op.equals("cancel")) {
+            Flight flight = flightSchedule.getFlight(UUID.fromString(entry.getString("flight")));
+            if (toAccounts && passenger != null) {
+                replayBookedFlights(passenger, flight, entry);
+            }
+            if (toFlights && flight != null) {
+                replaySeats(flight, entry);
+            }
+            return;
+        }
+        if (!toAccounts) {
+            return;
+        }
+        switch (op) {
+            case "signup":
+                Passenger signedUp = new Passenger("", "", "", "", null, "");
+                parsePassengerDetails(signedUp, entry.getJSONObject("passenger"));
+                if (account.signUp(email, signedUp)) {
+                    passengers.put(signedUp.getId(), signedUp);
+                }
+                break;
+            case "edit":
+                if (passenger != null) {
+                    parsePassengerDetails(passenger, entry.getJSONObject("passenger"));
+                }
+                break;
+            case "change email":
+                account.changeEmail(email, entry.getString("new email"));
+                break;
+            case "delete":
+                if (passenger != null) {
+                    passengers.remove(passenger.getId());
+                }
+                account.deletePassenger(email);
+                break;
+        }
+    }
+
+    // MODIFIES: passenger
+    // EFFECTS: adds or removes the journaled booking, with its journaled seat number, in the passenger's booked
+    //          flights without touching the flight
+    private void replayBookedFlights(Passenger passenger, Flight flight, JSONObject entry) {
+        Map<UUID, BookedFlight> bookedFlights = new HashMap<>();
+        for (BookedFlight bookedFlight : passenger.getBookedFlights()) {
+            bookedFlights.put(bookedFlight.getFlight().getId(), bookedFlight);
+        }
+        if (entry.getString("op").equals("cancel")) {
+            bookedFlights.remove(UUID.fromString(entry.getString("flight")));
+        } else if (flight != null) {
+            bookedFlights.put(flight.getId(), new BookedFlight(entry.getInt("seat"), flight,
+                    entry.optString("seat number", null)));
+        }
+        passenger.setBookedFlight(bookedFlights);
+    }
+
+    // MODIFIES: flight
+    // EFFECTS: takes or gives back the journaled seat and the exact seat number it was assigned on the flight,
+    //          without touching the passenger
+    private void replaySeats(Flight flight, JSONObject entry) {
+        int seat = entry.getInt("seat");
+        String seatNumber = entry.optString("seat number", null);
+        if (entry.getString("op").equals("book")) {
+            flight.tryBook(seat);
+            if (seatNumber != null) {
+                flight.getSeatMap().reserve(seatNumber);
+            }
+        } else {
+            if (seatNumber != null) {
+                flight.getSeatMap().release(seatNumber);
+            }
+            flight.release(seat);
+        }
+    }
+
     // EFFECTS: reads source file as string and returns it
     private String readFile(String source) throws IOException {
         StringBuilder contentBuilder = new StringBuilder();
@@ -52,67 +193,88 @@ public class JsonReader {
     }
 
 
-    // EFFECTS: parses accounts from JSON object and returns it
-    private Account parseAccounts(JSONObject jsonObject) {
+    // EFFECTS: parses accounts from JSON object, resolving bookings against flightSchedule, and returns it
+    private Account parseAccounts(JSONObject jsonObject, FlightSchedule flightSchedule) {
         JSONArray jsonArray = jsonObject.getJSONArray("accounts");
         Account account = new Account();
 
         for (Object json : jsonArray) {
             JSONObject nextAccount = (JSONObject) json;
-            parsePassenger(account, nextAccount);
+            parsePassenger(account, nextAccount, flightSchedule);
         }
         return account;
     }
 
     // REQUIRES: json object of passenger's account
-    // EFFECTS: reads the passenger's info from the json file and makes a new passenger,
-    //          then turn it into an account and returns it
-    private void parsePassenger(Account account, JSONObject jsonObject) {
-        String firstName = jsonObject.getString("first name");
-        String middleName = jsonObject.getString("middle name");
-        String lastName = jsonObject.getString("last name");
-        String emailAddress = jsonObject.getString("email");
-        String password = jsonObject.getString("password");
-        LocalDate dateOfBirth = LocalDate.parse(
-                jsonObject.getString("date of birth"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-        String phoneNumber = jsonObject.getString("phone");
-        String id = jsonObject.getString("uuid");
+    // MODIFIES: account
+    // EFFECTS: reads the passenger's info from the json file and makes a new passenger whose bookings refer to
+    //          the flights in flightSchedule, then adds it to the account
+    static void parsePassenger(Account account, JSONObject jsonObject, FlightSchedule flightSchedule) {
+        Passenger passenger = new Passenger("", "", "", "", null, "");
+        parsePassengerDetails(passenger, jsonObject);
+        passenger.setBookedFlight(parseBookedFlights(jsonObject.getJSONArray("booked flights"), flightSchedule));
 
-        Map<UUID, BookedFlight> bookedFlight = parseBookedFlights(jsonObject.getJSONArray("booked flights"));
-
-        Passenger passenger = new Passenger(firstName, lastName, emailAddress, password, dateOfBirth, phoneNumber);
-        passenger.setMiddleName(middleName);
-        passenger.setId(id);
-        passenger.setBookedFlight(bookedFlight);
+        account.loadPassenger(passenger.getEmailAddress(), passenger);
+    }
 
-        account.loadPassenger(emailAddress, passenger);
+    // REQUIRES: json object of passenger's details
+    // MODIFIES: passenger
+    // EFFECTS: reads the passenger's names, email, password, date of birth, phone and id from the json object
+    //          and sets them on the passenger
+    private static void parsePassengerDetails(Passenger passenger, JSONObject jsonObject) {
+        passenger.setFirstName(jsonObject.getString("first name"));
+        passenger.setMiddleName(jsonObject.getString("middle name"));
+        passenger.setLastName(jsonObject.getString("last name"));
+        passenger.setEmailAddress(jsonObject.getString("email"));
+        passenger.setPassword(jsonObject.getString("password"));
+        passenger.setDateOfBirth(LocalDate.parse(
+                jsonObject.getString("date of birth"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+        passenger.setPhoneNumber(jsonObject.getString("phone"));
+        passenger.setId(jsonObject.getString("uuid"));
     }
 
     // REQUIRES: json array of booked flights
-    // EFFECTS: reads booked flights from the json array and turns it into a map
-    //          with its uuid and seat
-    // Note: there will only be one flight within one booked flight.
-    private Map<UUID, BookedFlight> parseBookedFlights(JSONArray jsonArray) {
+    // EFFECTS: reads booked flights from the json array and turns it into a map with its uuid and seat, using
+    //          the flight with that uuid in flightSchedule. Bookings are saved with only the uuid of their flight,
+    //          but older files embed a copy of the whole flight as well, which is ignored. Bookings of flights
+    //          that aren't in flightSchedule are dropped, since the flight no longer exists, and each drop is
+    //          logged.
+    private static Map<UUID, BookedFlight> parseBookedFlights(JSONArray jsonArray, FlightSchedule flightSchedule) {
         Map<UUID, BookedFlight> bookedFlights = new HashMap<>();
 
         for (Object json : jsonArray) {
             JSONObject nextFlight = (JSONObject) json;
             UUID id = UUID.fromString(nextFlight.getString("uuid"));
-            Flight flight = parseFlight(nextFlight.getJSONObject("flight"));
+            Flight flight = flightSchedule.getFlight(id);
+            if (flight == null) {
+                EventLog.getInstance().logEvent(new Event("Dropped booking of Flight " + describeFlight(nextFlight)
+                        + " which is no longer scheduled."));
+                continue;
+            }
             int seat = nextFlight.getInt("seat");
-            BookedFlight bookedFlight = new BookedFlight(seat, flight);
-            bookedFlights.put(id, bookedFlight);
+            bookedFlights.put(id, new BookedFlight(seat, flight, nextFlight.optString("seat number", null)));
         }
         return bookedFlights;
     }
 
+    // EFFECTS: returns the airline code and flight number of the booked flight if its flight is embedded,
+    //          or its uuid otherwise
+    private static String describeFlight(JSONObject bookedFlight) {
+        JSONObject flight = bookedFlight.optJSONObject("flight");
+        if (flight == null) {
+            return bookedFlight.getString("uuid");
+        }
+        return flight.getString("airline") + flight.getInt("flight number");
+    }
+
 
     // REQUIRES: json object of flight
     // EFFECTS: reads the flight info from the json object and constructs a new flight
-    //          with the data and returns it.
+    //          with the data and returns it. Files written before seat capacities were stored only say how many
+    //          seats are left of each type, so each type is then given room for every seat taken on the flight.
     @SuppressWarnings({"checkstyle:MethodLength", "checkstyle:SuppressWarnings"})
-    private Flight parseFlight(JSONObject jsonObject) {
+    static Flight parseFlight(JSONObject jsonObject) {
         String id = jsonObject.getString("uuid");
         String airline = jsonObject.getString("airline");
         int flightNum = jsonObject.getInt("flight number");
@@ -144,10 +306,33 @@ public class JsonReader {
         flight.setEconomyPrice(economyPrice);
         flight.setBusinessPrice(businessPrice);
         flight.setFirstClassPrice(firstClassPrice);
+        if (jsonObject.has("economy capacity")) {
+            flight.setSeatCapacity(jsonObject.getInt("economy capacity"), jsonObject.getInt("business capacity"),
+                    jsonObject.getInt("first class capacity"));
+        } else {
+            int taken = Math.max(0, maxSeats - economySeats - businessSeats - firstClassSeats);
+            flight.setSeatCapacity(economySeats + taken, businessSeats + taken, firstClassSeats + taken);
+        }
+        if (jsonObject.has("seat map")) {
+            flight.setSeatMap(parseSeatMap(jsonObject.getJSONObject("seat map")));
+        }
 
         return flight;
     }
 
+    // REQUIRES: json object of a seat map
+    // EFFECTS: reads the number of seats of each type and the base64 bitmaps of taken seats
+    //          and constructs the seat map
+    private static SeatMap parseSeatMap(JSONObject jsonObject) {
+        SeatMap seatMap = new SeatMap(jsonObject.getInt("economy seats"), jsonObject.getInt("business seats"),
+                jsonObject.getInt("first class seats"));
+        JSONArray taken = jsonObject.getJSONArray("taken");
+        for (int seat = 1; seat <= 3; seat++) {
+            seatMap.setTakenSeats(seat, BitSet.valueOf(Base64.getDecoder().decode(taken.getString(seat - 1))));
+        }
+        return seatMap;
+    }
+
     // REQUIRES: json object of flight schedule
     // EFFECTS: parses flight schedule from JSON object and returns it
     private FlightSchedule parseFlightSchedule(JSONObject jsonObject) {
@@ -0,0 +1,100 @@
+package persistence;
+
+import model.Account;
+import model.FlightSchedule;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
+// reads the same json files as JsonReader, but one passenger or flight at a time
+// JsonReader builds the whole file as one string and then as one JSONObject before parsing anything, so it
+// needs several times the size of the file in memory. This reader walks the tokens of the top level object
+// itself and only builds a JSONObject for one element of the "accounts" or "flights" array at a time, handing
+// it to the same parsing code as JsonReader before reading the next one.
+public class JsonStreamReader {
+    private final String source;
+    private long journalSequence;
+
+    // EFFECTS: constructs reader to read from source file
+    public JsonStreamReader(String source) {
+        this.source = source;
+    }
+
+    // EFFECTS: reads accounts from file, resolving every booking against the flights in flightSchedule,
+    //          and returns it; throws IOException if an error occurs reading data from file
+    public Account readAccounts(FlightSchedule flightSchedule) throws IOException {
+        Account account = new Account();
+        read("accounts", json -> JsonReader.parsePassenger(account, json, flightSchedule));
+        return account;
+    }
+
+    // EFFECTS: reads flights from file and returns it;
+    // throws IOException if an error occurs reading data from file
+    public FlightSchedule readFlights() throws IOException {
+        FlightSchedule flightSchedule = new FlightSchedule();
+        read("flights", json -> flightSchedule.addFlight(JsonReader.parseFlight(json)));
+        return flightSchedule;
+    }
+
+    // EFFECTS: returns the sequence number of the last journal entry included in the snapshot read last,
+    //          or 0 if it was written without a journal
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the top level object of source, handing every element of the array named records to
+    //          consumer in order and remembering the journal sequence; skips any other member.
+    //          Throws IOException if an error occurs reading data from file
+    private void read(String records, Consumer<JSONObject> consumer) throws IOException {
+        journalSequence = 0;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            JSONTokener tokener = new JSONTokener(in);
+            expect(tokener, '{');
+            if (tokener.nextClean() == '}') {
+                return;
+            }
+            tokener.back();
+            do {
+                String key = tokener.nextValue().toString();
+                expect(tokener, ':');
+                if (key.equals(records)) {
+                    readArray(tokener, consumer);
+                } else if (key.equals("journal sequence")) {
+                    journalSequence = ((Number) tokener.nextValue()).longValue();
+                } else {
+                    tokener.nextValue();
+                }
+            } while (tokener.nextClean() == ',');
+            tokener.back();
+            expect(tokener, '}');
+        }
+    }
+
+    // EFFECTS: reads a json array of objects, handing each one to consumer as soon as it is read
+    private void readArray(JSONTokener tokener, Consumer<JSONObject> consumer) {
+        expect(tokener, '[');
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        do {
+            consumer.accept(new JSONObject(tokener));
+        } while (tokener.nextClean() == ',');
+        tokener.back();
+        expect(tokener, ']');
+    }
+
+    // EFFECTS: skips whitespace and reads the next character, throwing JSONException if it isn't expected
+    private void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+}
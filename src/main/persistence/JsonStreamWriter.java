@@ -0,0 +1,151 @@
+package persistence;
+
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+// writes the same json files as JsonWriter, one passenger or flight at a time
+// JsonWriter builds the whole document as one JSONObject and then as one string before printing it, so saving
+// needs several times the size of the file in memory. This writer walks the passengers or flights itself and
+// writes each one's json straight to a buffered file, so only one of them is built in memory at a time.
+public class JsonStreamWriter implements Closeable {
+    private static final int TAB = 4;
+    private static final String INDENT = "    ";
+    private Writer writer;
+    private final String destination;
+    private final boolean pretty;
+
+    // EFFECTS: constructs writer to write to destination file with indentation
+    public JsonStreamWriter(String destination) {
+        this(destination, true);
+    }
+
+    // EFFECTS: constructs writer to write to destination file, with indentation if pretty
+    //          or on as few lines as possible otherwise
+    public JsonStreamWriter(String destination, boolean pretty) {
+        this.destination = destination;
+        this.pretty = pretty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // be opened for writing
+    public void open() throws FileNotFoundException {
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(destination),
+                StandardCharsets.UTF_8));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of account to file, one passenger at a time;
+    //          throws IOException if an error occurs writing to file
+    public void write(Account account) throws IOException {
+        write(account, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of account to file, one passenger at a time, recording that it
+    //          includes every journal entry up to journalSequence unless that is 0;
+    //          throws IOException if an error occurs writing to file
+    public void write(Account account, long journalSequence) throws IOException {
+        writeArray("accounts", journalSequence, account.getPassengers(), Passenger::toJson);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of the accounts captured in view to file, one passenger at a time,
+    //          recording that it includes every journal entry up to the view's sequence number;
+    //          throws IOException if an error occurs writing to file
+    void writeAccounts(SnapshotView view) throws IOException {
+        writeArray("accounts", view.getJournalSequence(), view.getAccounts(), json -> json);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of flight schedule to file, one flight at a time;
+    //          throws IOException if an error occurs writing to file
+    public void write(FlightSchedule flightSchedule) throws IOException {
+        write(flightSchedule, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of flight schedule to file, one flight at a time, recording that it
+    //          includes every journal entry up to journalSequence unless that is 0;
+    //          throws IOException if an error occurs writing to file
+    public void write(FlightSchedule flightSchedule, long journalSequence) throws IOException {
+        writeArray("flights", journalSequence, flightSchedule.getFlightSchedule(), Flight::toJson);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of the flights captured in view to file, one flight at a time,
+    //          recording that it includes every journal entry up to the view's sequence number;
+    //          throws IOException if an error occurs writing to file
+    void writeFlights(SnapshotView view) throws IOException {
+        writeArray("flights", view.getJournalSequence(), view.getFlights(), view::toJson);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out anything still buffered and closes writer, if it was opened;
+    //          throws IOException if an error occurs writing to file
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a top level object holding the journal sequence, unless it is 0, and one array with the
+    //          given name holding the json of every item, converting one item at a time
+    private <T> void writeArray(String name, long journalSequence, Iterable<T> items,
+                                Function<T, JSONObject> toJson) throws IOException {
+        startArray(name, journalSequence);
+        boolean first = true;
+        for (T item : items) {
+            nextElement(first);
+            toJson.apply(item).write(writer, pretty ? TAB : 0, pretty ? TAB : 0);
+            first = false;
+        }
+        endArray(first);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the start of a top level object holding the journal sequence, unless it is 0,
+    //          and one array with the given name
+    private void startArray(String name, long journalSequence) throws IOException {
+        String separator = pretty ? ": " : ":";
+        writer.write('{');
+        if (journalSequence != 0) {
+            writer.write("\"journal sequence\"" + separator + journalSequence + (pretty ? ",\n" : ","));
+        }
+        writer.write("\"" + name + "\"" + separator + "[");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes what goes before an element of the array, depending on whether it is the first one
+    private void nextElement(boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        if (pretty) {
+            writer.write('\n');
+            writer.write(INDENT);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the end of the array and of the top level object, depending on whether the array is empty
+    private void endArray(boolean empty) throws IOException {
+        writer.write(pretty && !empty ? "\n]}" : "]}");
+    }
+}
@@ -0,0 +1,169 @@
+package persistence;
+
+import model.Account;
+import model.FlightSchedule;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Keeps the journal short by periodically folding it into fresh snapshots of the accounts and flights files.
+// Journaled changes are only paused while the passengers and seats are copied into a view, so the snapshot
+// matches exactly the journal entries up to one sequence number, which is stored in both files as "journal
+// sequence". Streaming the view to temporary files, syncing them and truncating the journal all happen after
+// changes resume. Each file is moved over the old one atomically - flights first, then accounts - and only then
+// are the included entries dropped from the journal, so restarting after a crash at any point replays each
+// change exactly once.
+public class SnapshotCompactor {
+
+    private final Account account;
+    private final FlightSchedule flightSchedule;
+    private final Journal journal;
+    private final String accountsDestination;
+    private final String flightsDestination;
+
+    private long compactedThrough;
+    private long compactions;
+    private Exception lastFailure;
+    private volatile Consumer<Exception> failureHandler = e -> { };
+    private ScheduledExecutorService scheduler;
+
+    // EFFECTS: constructs a compactor folding the journal of the account into snapshots of the account and
+    //          flight schedule at the given destinations
+    public SnapshotCompactor(Account account, FlightSchedule flightSchedule, Journal journal,
+                             String accountsDestination, String flightsDestination) {
+        this.account = account;
+        this.flightSchedule = flightSchedule;
+        this.journal = journal;
+        this.accountsDestination = accountsDestination;
+        this.flightsDestination = flightsDestination;
+    }
+
+    // EFFECTS: returns the number of snapshots written so far
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    // EFFECTS: returns why the last background compaction failed, or null if it succeeded or none has run yet
+    public synchronized Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes every failed background compaction be passed to the given handler on the compactor's thread
+    public void setFailureHandler(Consumer<Exception> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    // MODIFIES: this, journal, snapshot files
+    // EFFECTS: writes fresh snapshots of the account and flight schedule and drops the journal entries they
+    //          include, unless nothing was journaled since the last snapshot; returns the sequence number of the
+    //          last journal entry included. Throws IOException if the snapshots or journal can't be written
+    public synchronized long compact() throws IOException {
+        SnapshotView view = account.capture(this::captureView);
+        if (view == null) {
+            return compactedThrough;
+        }
+        long sequence = view.getJournalSequence();
+        try {
+            try (JsonStreamWriter writer = new JsonStreamWriter(flightsDestination + ".tmp")) {
+                writer.open();
+                writer.writeFlights(view);
+            }
+            try (JsonStreamWriter writer = new JsonStreamWriter(accountsDestination + ".tmp")) {
+                writer.open();
+                writer.writeAccounts(view);
+            }
+            moveAtomically(flightsDestination);
+            moveAtomically(accountsDestination);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(Paths.get(flightsDestination + ".tmp"));
+            Files.deleteIfExists(Paths.get(accountsDestination + ".tmp"));
+            throw e;
+        }
+        journal.truncateThrough(sequence);
+        compactedThrough = sequence;
+        compactions++;
+        return sequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a background thread compacting once every interval
+    public synchronized void start(Duration interval) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "snapshot-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::compactInBackground, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the background thread, waiting for a compaction in progress to finish
+    public void stop() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+            scheduler = null;
+        }
+        if (current != null) {
+            current.shutdown();
+            try {
+                current.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // MODIFIES: this, journal, snapshot files
+    // EFFECTS: compacts, recording a failure as the last failure and passing it to the failure handler instead of
+    //          stopping the background thread; the journal still holds every change after a failure, so the next
+    //          compaction simply tries again
+    private void compactInBackground() {
+        Exception failure = null;
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        synchronized (this) {
+            lastFailure = failure;
+        }
+        if (failure != null) {
+            failureHandler.accept(failure);
+        }
+    }
+
+    // REQUIRES: no journaled change can happen
+    // EFFECTS: returns a view of the account and flight schedule as of the journal's last sequence number, or
+    //          null if nothing was journaled since the last snapshot
+    private SnapshotView captureView() {
+        long sequence = journal.getLastSequence();
+        if (sequence == compactedThrough) {
+            return null;
+        }
+        return new SnapshotView(account, flightSchedule, sequence);
+    }
+
+    // EFFECTS: syncs the temporary file written next to destination and moves it over destination atomically
+    private static void moveAtomically(String destination) throws IOException {
+        Path temp = Paths.get(destination + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            out.force(true);
+        }
+        Files.move(temp, Paths.get(destination), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,85 @@
+package persistence;
+
+import model.Account;
+import model.BookingCoordinator;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import model.SeatMap;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A view of the accounts and flights as of one journal sequence number, for writing a snapshot.
+// Every passenger is converted to json while journaled changes are paused, since sign ups, deletions, email
+// changes and bookings are all journaled and replaying them on top of a later state of a passenger can lose it.
+// Of the flights only what bookings change - each flight's seat counts and seat map, if it has one yet - is
+// copied, so capturing doesn't create seat maps for flights nobody has a seat number on; the rest of a
+// flight isn't journaled and is read live while the snapshot is written, after changes have resumed.
+// Seats taken for seat holds are counted as available: holds aren't journaled and end with the process, and a
+// hold confirmed later is journaled as a booking that takes its seat again on replay.
+class SnapshotView {
+
+    private final long journalSequence;
+    private final List<JSONObject> accounts = new ArrayList<>();
+    private final List<Flight> flights;
+    private final Map<Flight, int[]> availableSeats = new IdentityHashMap<>();
+    private final Map<Flight, SeatMap> seatMaps = new IdentityHashMap<>();
+
+    // REQUIRES: no journaled change can happen
+    // EFFECTS: captures the passengers of the account along with their bookings, and the flights of the schedule
+    //          along with their seats, as included in every journal entry up to journalSequence, with seats
+    //          held through the account's coordinator counted as available
+    SnapshotView(Account account, FlightSchedule flightSchedule, long journalSequence) {
+        this.journalSequence = journalSequence;
+        for (Passenger passenger : account.getPassengers()) {
+            accounts.add(passenger.toJson());
+        }
+        BookingCoordinator coordinator = account.getCoordinator();
+        this.flights = flightSchedule.getFlightSchedule();
+        for (Flight flight : flights) {
+            int[] seats = new int[3];
+            for (int seat = 1; seat <= 3; seat++) {
+                seats[seat - 1] = flight.getAvailableSeats(seat) + coordinator.getHeldSeats(flight, seat);
+            }
+            availableSeats.put(flight, seats);
+            if (flight.hasSeatMap()) {
+                seatMaps.put(flight, flight.getSeatMap().copy());
+            }
+        }
+    }
+
+    long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // EFFECTS: returns the json of every passenger as captured
+    List<JSONObject> getAccounts() {
+        return accounts;
+    }
+
+    List<Flight> getFlights() {
+        return flights;
+    }
+
+    // REQUIRES: flight in this view
+    // EFFECTS: converts the flight into a json object with the seats it had left and taken when captured, without
+    //          a seat map if it had none yet
+    JSONObject toJson(Flight flight) {
+        JSONObject json = flight.toJson();
+        int[] seats = availableSeats.get(flight);
+        json.put("remaining economy seats", seats[0]);
+        json.put("remaining business seats", seats[1]);
+        json.put("remaining first class seats", seats[2]);
+        SeatMap seatMap = seatMaps.get(flight);
+        if (seatMap != null) {
+            json.put("seat map", seatMap.toJson());
+        } else {
+            json.remove("seat map");
+        }
+        return json;
+    }
+}
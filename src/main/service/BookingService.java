@@ -0,0 +1,287 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Serves login, search, book and cancel as JSON over HTTP on the loopback interface, so many users can
+// share one account registry and flight schedule without the Swing pages. Every request runs on its own
+// virtual thread when the JVM supports them, and on a thread from a cached pool otherwise.
+//
+//   POST /login   {"email", "password"}           -> {"token", "passenger"}
+//   GET  /search  ?from=YVR&to=YYZ                -> {"flights"}
+//   POST /book    {"token", "flight", "seat"}     -> {"flight", "seat"}
+//   POST /cancel  {"token", "flight"}             -> {"flight"}
+//
+// Errors are answered with their HTTP status and {"error": message}, and anything unexpected with 500.
+// Bookings and cancellations go through the account, so they are recorded in its journal when it has one.
+// A session ends once it has gone unused for the session timeout; ended sessions are dropped when the next
+// request uses them, and all of them at most once per timeout when someone logs in.
+public class BookingService {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofMinutes(30);
+    private static final int BACKLOG = 1024;
+
+    private final Account account;
+    private final FlightSchedule flightSchedule;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long sessionTimeoutMillis;
+    private final LongSupplier clock;
+    private volatile long nextEviction;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    // EFFECTS: constructs a service for the account and flight schedule listening on the given loopback port,
+    //          or on any free port if port is 0, with the default session timeout using the system clock;
+    //          throws IOException if the port can't be bound
+    public BookingService(Account account, FlightSchedule flightSchedule, int port) throws IOException {
+        this(account, flightSchedule, port, DEFAULT_SESSION_TIMEOUT, System::currentTimeMillis);
+    }
+
+    // REQUIRES: positive session timeout, clock returning milliseconds
+    // EFFECTS: constructs a service for the account and flight schedule listening on the given loopback port,
+    //          or on any free port if port is 0, ending sessions that go unused for sessionTimeout;
+    //          throws IOException if the port can't be bound
+    public BookingService(Account account, FlightSchedule flightSchedule, int port, Duration sessionTimeout,
+                          LongSupplier clock) throws IOException {
+        this.account = account;
+        this.flightSchedule = flightSchedule;
+        this.sessionTimeoutMillis = sessionTimeout.toMillis();
+        this.clock = clock;
+        this.nextEviction = clock.getAsLong() + sessionTimeoutMillis;
+        this.executor = newPerRequestExecutor();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        server.setExecutor(executor);
+        server.createContext("/login", exchange -> handle(exchange, "POST", this::login));
+        server.createContext("/search", exchange -> handle(exchange, "GET", this::search));
+        server.createContext("/book", exchange -> handle(exchange, "POST", this::book));
+        server.createContext("/cancel", exchange -> handle(exchange, "POST", this::cancel));
+    }
+
+    // EFFECTS: returns the number of sessions that haven't been dropped yet
+    public int getSessions() {
+        return sessions.size();
+    }
+
+    // EFFECTS: returns the port the service listens on
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts answering requests
+    public void start() {
+        server.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops answering requests and shuts down the request threads
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // EFFECTS: returns an executor that runs every task on a new virtual thread, falling back to a cached
+    //          thread pool on JVMs without virtual threads
+    static ExecutorService newPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks the password of the passenger with the given email and starts a session for them
+    private JSONObject login(JSONObject request) {
+        String email = request.getString("email");
+        switch (account.matchPassword(email, request.getString("password"))) {
+            case 1:
+                break;
+            case 0:
+                throw new ServiceException(401, "Invalid password! Please try again.");
+            default:
+                throw new ServiceException(401, "Credentials not found!");
+        }
+        Passenger passenger = account.retrievePassenger(email);
+        String token = UUID.randomUUID().toString();
+        long now = clock.getAsLong();
+        evictExpiredSessions(now);
+        sessions.put(token, new Session(passenger, now + sessionTimeoutMillis));
+
+        JSONObject json = new JSONObject();
+        json.put("token", token);
+        json.put("passenger", new JSONObject()
+                .put("uuid", passenger.getId())
+                .put("first name", passenger.getFirstName())
+                .put("last name", passenger.getLastName())
+                .put("email", passenger.getEmailAddress()));
+        return json;
+    }
+
+    // EFFECTS: returns the flights from one airport to another in order of departure
+    private JSONObject search(JSONObject request) {
+        JSONArray flights = new JSONArray();
+        for (Flight flight : flightSchedule.getFlightsByDestination(request.getString("from"),
+                request.getString("to"))) {
+            flights.put(flight.toJson());
+        }
+        return new JSONObject().put("flights", flights);
+    }
+
+    // MODIFIES: passenger of the session, flight
+    // EFFECTS: books a seat of the given type on the flight for the passenger of the session
+    private JSONObject book(JSONObject request) {
+        Passenger passenger = session(request);
+        Flight flight = flight(request);
+        int seat = request.getInt("seat");
+        if (seat < 1 || seat > 3) {
+            throw new ServiceException(400, "Seat must be 1 (economy), 2 (business) or 3 (first class).");
+        }
+        if (!account.bookFlight(passenger, flight, seat)) {
+            throw new ServiceException(409, "Flight is already booked or the seat type is sold out.");
+        }
+        return new JSONObject().put("flight", flight.getId()).put("seat", seat);
+    }
+
+    // MODIFIES: passenger of the session, flight
+    // EFFECTS: cancels the passenger of the session's booking of the flight
+    private JSONObject cancel(JSONObject request) {
+        Passenger passenger = session(request);
+        Flight flight = flight(request);
+        if (!account.cancelFlight(passenger, flight.getId())) {
+            throw new ServiceException(404, "Flight is not booked.");
+        }
+        return new JSONObject().put("flight", flight.getId());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the passenger logged in with the request's token and keeps their session going for
+    //          another session timeout; drops the session if it has already ended
+    private Passenger session(JSONObject request) {
+        String token = request.getString("token");
+        Session session = sessions.get(token);
+        long now = clock.getAsLong();
+        if (session == null || session.expiresAt <= now) {
+            if (session != null) {
+                sessions.remove(token, session);
+            }
+            throw new ServiceException(401, "Please log in first.");
+        }
+        session.expiresAt = now + sessionTimeoutMillis;
+        return session.passenger;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every ended session, unless that was already done less than a session timeout ago
+    private void evictExpiredSessions(long now) {
+        if (now < nextEviction) {
+            return;
+        }
+        nextEviction = now + sessionTimeoutMillis;
+        sessions.values().removeIf(session -> session.expiresAt <= now);
+    }
+
+    // EFFECTS: returns the flight with the request's flight id
+    private Flight flight(JSONObject request) {
+        Flight flight;
+        try {
+            flight = flightSchedule.getFlight(UUID.fromString(request.getString("flight")));
+        } catch (IllegalArgumentException e) {
+            throw new ServiceException(400, "Invalid flight id.");
+        }
+        if (flight == null) {
+            throw new ServiceException(404, "Flight not found.");
+        }
+        return flight;
+    }
+
+    // EFFECTS: answers the exchange with the endpoint's response to its request, or with an error if the
+    //          method isn't allowed, the request is malformed, the endpoint rejects it or fails unexpectedly,
+    //          and always closes the exchange
+    private void handle(HttpExchange exchange, String method, Function<JSONObject, JSONObject> endpoint)
+            throws IOException {
+        try {
+            int status = 200;
+            JSONObject response;
+            try {
+                if (!exchange.getRequestMethod().equals(method)) {
+                    throw new ServiceException(405, "Use " + method + ".");
+                }
+                response = endpoint.apply(readRequest(exchange));
+            } catch (ServiceException e) {
+                status = e.getStatus();
+                response = new JSONObject().put("error", e.getMessage());
+            } catch (JSONException e) {
+                status = 400;
+                response = new JSONObject().put("error", e.getMessage());
+            } catch (RuntimeException e) {
+                status = 500;
+                response = new JSONObject().put("error", "Internal error.");
+            }
+            byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // EFFECTS: returns the JSON body of a POST request, or the query parameters of a GET request as JSON
+    private static JSONObject readRequest(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return new JSONObject(new JSONTokener(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)));
+        }
+        JSONObject json = new JSONObject();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int split = parameter.indexOf('=');
+                if (split > 0) {
+                    json.put(URLDecoder.decode(parameter.substring(0, split), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(split + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return json;
+    }
+
+    // A logged in passenger and when their session ends unless it is used before then
+    private static final class Session {
+        private final Passenger passenger;
+        private volatile long expiresAt;
+
+        Session(Passenger passenger, long expiresAt) {
+            this.passenger = passenger;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package service;
+
+// Thrown by a BookingService endpoint to answer a request with an error status and message.
+public class ServiceException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    // EFFECTS: constructs an exception answering with the given HTTP status and message
+    public ServiceException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,51 @@
+package service;
+
+import model.Account;
+import model.FlightSchedule;
+import persistence.Journal;
+import persistence.JsonReader;
+import persistence.JsonStreamReader;
+import persistence.SnapshotCompactor;
+
+import java.io.IOException;
+import java.time.Duration;
+
+// Runs the booking service without the Swing pages. Loads accounts and flights from file, replays the journal
+// on top of them and serves them on the port given as the first argument (8080 by default), recording every
+// change in the journal until the JVM shuts down and folding the journal into the files every few minutes.
+public class ServiceMain {
+
+    private static final String JSON_ACCOUNTS = "./data/accounts.json";
+    private static final String JSON_FLIGHTS = "./data/flights.json";
+    private static final String JOURNAL = "./data/journal.log";
+    private static final Duration COMPACTION_INTERVAL = Duration.ofMinutes(5);
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : BookingService.DEFAULT_PORT;
+        JsonStreamReader flightsReader = new JsonStreamReader(JSON_FLIGHTS);
+        FlightSchedule flightSchedule = flightsReader.readFlights();
+        JsonStreamReader accountsReader = new JsonStreamReader(JSON_ACCOUNTS);
+        Account account = accountsReader.readAccounts(flightSchedule);
+        new JsonReader(JOURNAL).replayJournal(account, flightSchedule,
+                accountsReader.getJournalSequence(), flightsReader.getJournalSequence());
+        Journal journal = new Journal(JOURNAL);
+        account.setJournal(journal);
+        SnapshotCompactor compactor = new SnapshotCompactor(account, flightSchedule, journal, JSON_ACCOUNTS,
+                JSON_FLIGHTS);
+        compactor.setFailureHandler(e -> System.out.println("Unable to compact journal: " + e.getMessage()));
+        compactor.start(COMPACTION_INTERVAL);
+
+        BookingService service = new BookingService(account, flightSchedule, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            service.stop();
+            compactor.stop();
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.out.println("Unable to write to file: " + JOURNAL);
+            }
+        }));
+        service.start();
+        System.out.println("Booking service listening on port " + service.getPort());
+    }
+}
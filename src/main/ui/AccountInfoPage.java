@@ -95,7 +95,7 @@ public class AccountInfoPage extends BorderLayoutPage {
         popup.add(container);
         popup.validate();
         this.frame.getContentPane().removeAll();
-        new LoginPage(this.frame, this.account);
+        new LoginPage(this.frame, this.account, this.flightschedule);
     }
 
 
@@ -86,7 +86,7 @@ public class AirplaneApp extends BorderLayoutPage {
         });
         signOut.addActionListener(e -> {
             this.frame.getContentPane().removeAll();
-            new LoginPage(this.frame, this.account);
+            new LoginPage(this.frame, this.account, this.flightSchedule);
         });
         return Arrays.asList(bookFlight, accountInfo, signOut);
     }
@@ -67,21 +67,20 @@ public class BookFlightPage extends BorderLayoutPage {
              and the flight isn't full
      */
     void availableFlights(JScrollPane container) {
-        List<Flight> flightList = this.flightSchedule.getFlightSchedule();
+        List<Flight> flightList = this.flightSchedule.getAvailableFlights(this.passenger);
         JPanel panel = new JPanel();
         if (flightList.isEmpty()) {
             panel.setLayout(new GridBagLayout());
             panel.add(new JLabel("There are no available flights!"));
+            container.setViewportView(panel);
             return;
         }
+        panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         for (Flight flight : flightList) {
-            if (!flight.isFull() && !passenger.hasFlight(flight)) {
-                panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-                JButton button = new JButton(flight.publicInfo());
-                button.setPreferredSize(new Dimension(panel.getWidth(), 100));
-                panel.add(button);
-                button.addActionListener(e -> bookFlight(flight));
-            }
+            JButton button = new JButton(flight.publicInfo());
+            button.setPreferredSize(new Dimension(panel.getWidth(), 100));
+            panel.add(button);
+            button.addActionListener(e -> bookFlight(flight));
         }
         container.setViewportView(panel);
     }
@@ -167,7 +166,8 @@ public class BookFlightPage extends BorderLayoutPage {
     /*
     REQUIRES: popup frame, flight to be booked, error message and a list of checkboxes that hold seat types
     MODIFIES: this
-    EFFECTS: checks if user only selected one checkbox and books flight if one is selected
+    EFFECTS: checks if user only selected one checkbox and books flight if one is selected and
+             that seat type hasn't sold out in the meantime
      */
     void saveBooking(JFrame popup, Flight flight, JLabel errorMsg, List<JCheckBox> checkBoxes) {
         boolean oneSelected = false;
@@ -181,8 +181,9 @@ public class BookFlightPage extends BorderLayoutPage {
                 break;
             }
         }
-        if (oneSelected) {
-            this.passenger.addBookedFlight(flight, convertSeatStringToInt(seat));
+        if (oneSelected && !this.account.bookFlight(this.passenger, flight, convertSeatStringToInt(seat))) {
+            errorMsg.setText("Sorry, the last " + seat + " seat was just booked!");
+        } else if (oneSelected) {
             popup.getContentPane().removeAll();
             popup.add(new JLabel("Successfully Booked!"));
             popup.setSize(new Dimension(200, 100));
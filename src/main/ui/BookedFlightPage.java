@@ -49,7 +49,9 @@ public class BookedFlightPage extends BorderLayoutPage {
         this.panel = createTopPanel(this.panel);
 
         JPanel flightInfo = createInfoPanel("Your Flight", "<html>" + this.flight.getFlight().toString()
-                + "<br>" + "Seat: " + this.flight.getSeat() + "<html>");
+                + "<br>" + "Seat: " + this.flight.getSeat()
+                + (this.flight.getSeatNumber() != null ? "<br>Seat Number: " + this.flight.getSeatNumber() : "")
+                + "<html>");
 
 
         this.panel = createLeftSidePanel(this.panel, this.frame.getHeight(), new JLabel(), flightInfo);
@@ -94,7 +96,7 @@ public class BookedFlightPage extends BorderLayoutPage {
              shows a confirmation message that the flight is removed
      */
     void removeFlightAction(JFrame popup, JPanel container) {
-        this.passenger.removeBookedFlight(this.flight.getFlight().getId());
+        this.account.cancelFlight(this.passenger, this.flight.getFlight().getId());
 
         container.removeAll();
         container.add(new JLabel("Successfully removed and saved!"));
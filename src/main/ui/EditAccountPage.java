@@ -70,13 +70,14 @@ public class EditAccountPage extends SignUpPage {
             }
         }
 
-        setPassengerFields(feedbackMsg);
-        if (!this.textFields.get(3).getText().equals(email)) {
-            this.account.deletePassenger(email);
-            this.account.addPassenger(this.textFields.get(3).getText(), this.passenger);
-        } else {
-            this.account.replacePassenger(email, this.passenger);
+        String newEmail = this.textFields.get(3).getText();
+        if (!newEmail.equals(email) && !this.account.changeEmail(email, newEmail)) {
+            feedbackMsg.setForeground(Color.red);
+            feedbackMsg.setText("That email address is already registered!");
+            return;
         }
+        setPassengerFields(feedbackMsg);
+        this.account.replacePassenger(newEmail, this.passenger);
         this.frame.getContentPane().removeAll();
         this.frame.repaint();
         new AirplaneApp(this.frame, this.account, this.flightSchedule, this.passenger);
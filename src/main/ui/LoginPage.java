@@ -4,8 +4,11 @@ import model.Account;
 import model.Event;
 import model.EventLog;
 import model.FlightSchedule;
+import persistence.Journal;
 import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.JsonStreamReader;
+import persistence.JsonStreamWriter;
+import persistence.SnapshotCompactor;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,8 +16,8 @@ import java.awt.event.FocusEvent;
 import java.awt.event.FocusListener;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.time.Duration;
 
 // Represents a login page
 public class LoginPage {
@@ -24,44 +27,73 @@ public class LoginPage {
 
     private static final String JSON_ACCOUNTS = "./data/accounts.json";
     private static final String JSON_FLIGHTS = "./data/flights.json";
+    private static final String JOURNAL = "./data/journal.log";
+    private static final Duration COMPACTION_INTERVAL = Duration.ofMinutes(5);
 
-    private final JsonWriter jsonWriterAccounts;
-    private final JsonReader jsonReaderAccounts;
+    private final JsonStreamWriter jsonWriterAccounts = new JsonStreamWriter(JSON_ACCOUNTS);
+    private final JsonStreamReader jsonReaderAccounts = new JsonStreamReader(JSON_ACCOUNTS);
 
-    private final JsonWriter jsonWriterFlights;
-    private final JsonReader jsonReaderFlights;
+    private final JsonStreamWriter jsonWriterFlights = new JsonStreamWriter(JSON_FLIGHTS);
+    private final JsonStreamReader jsonReaderFlights = new JsonStreamReader(JSON_FLIGHTS);
 
     private FlightSchedule flightSchedule;
 
     private Account account;
 
+    private SnapshotCompactor compactor;
+
     private final JFrame frame;
 
     // EFFECTS: constructs a new airplane app with a json writer and reader for accounts and flights
-    //          automatically loads accounts and flights from files and goes to the menu
+    //          automatically loads accounts and flights from files, replays the journal and goes to the menu
     public LoginPage(JFrame frame, Account account) {
         this.account = account;
         this.flightSchedule = new FlightSchedule();
-        this.jsonWriterFlights = new JsonWriter(JSON_FLIGHTS);
-        this.jsonReaderFlights = new JsonReader(JSON_FLIGHTS);
-        this.jsonWriterAccounts = new JsonWriter(JSON_ACCOUNTS);
-        this.jsonReaderAccounts = new JsonReader(JSON_ACCOUNTS);
         this.frame = frame;
         loadFlights();
-        saveFlights();
-        loadAndSave();
+        loadAndReplay();
+        this.frame.addWindowListener(new WindowAdapter() {
+            public void windowClosing(WindowEvent evt) {
+                saveOnExit();
+                EventLog eventLog = EventLog.getInstance();
+                for (Event next : eventLog) {
+                    System.out.println(next.toString() + "\n");
+                }
+                System.exit(0);
+            }
+        });
         // menu();
         initializeGraphics();
     }
 
+    // EFFECTS: goes back to the login menu of an app whose accounts and flights are already loaded
+    public LoginPage(JFrame frame, Account account, FlightSchedule flightSchedule) {
+        this.account = account;
+        this.flightSchedule = flightSchedule;
+        this.frame = frame;
+        initializeGraphics();
+    }
+
     /*
-    EFFECTS: load and saves accounts
+    MODIFIES: this
+    EFFECTS: loads accounts from file, replays the changes recorded in the journal since each file was saved,
+             keeps recording changes in the journal and folds them into the files in the background
      */
-    void loadAndSave() {
-        if (this.account.accounts.isEmpty()) {
+    void loadAndReplay() {
+        if (this.account.isEmpty()) {
             loadAccounts();
         }
-        saveAccounts();
+        try {
+            new JsonReader(JOURNAL).replayJournal(this.account, this.flightSchedule,
+                    jsonReaderAccounts.getJournalSequence(), jsonReaderFlights.getJournalSequence());
+            Journal journal = new Journal(JOURNAL);
+            this.account.setJournal(journal);
+            compactor = new SnapshotCompactor(this.account, this.flightSchedule, journal, JSON_ACCOUNTS, JSON_FLIGHTS);
+            compactor.setFailureHandler(e -> System.out.println("Unable to compact journal: " + e.getMessage()));
+            compactor.start(COMPACTION_INTERVAL);
+        } catch (IOException e) {
+            System.out.println("Unable to read from file: " + JOURNAL);
+        }
     }
 
     /*
@@ -74,17 +106,6 @@ public class LoginPage {
         this.frame.setTitle("Airplane App");
         this.frame.setVisible(true);
         this.frame.setLocationRelativeTo(null);
-        this.frame.addWindowListener(new WindowAdapter() {
-            public void windowClosing(WindowEvent evt) {
-                saveAccounts();
-                saveFlights();
-                EventLog eventLog = EventLog.getInstance();
-                for (Event next : eventLog) {
-                    System.out.println(next.toString() + "\n");
-                }
-                System.exit(0);
-            }
-        });
         loginMenu();
     }
 
@@ -369,7 +390,7 @@ public class LoginPage {
                     + "2) Business[$" + flight.getBusinessPrice() + "]\n"
                     + "3) First Class[$" + flight.getFirstClassPrice() + "]");
             int seat = getOption(3);
-            user.addBookedFlight(flight, seat);
+            account.bookFlight(user, flight, seat);
 
             System.out.println("Successfully booked Flight " + flight.getAirlineCode()
                     + flight.getFlightNumber() + "!");
@@ -405,7 +426,7 @@ public class LoginPage {
             System.out.print("Please input a number: ");
             int choice = getOption(bookedFlights.size());
             Flight flight = bookedFlights.get(choice - 1).getFlight();
-            user.removeBookedFlight(flight.getId());
+            account.cancelFlight(user, flight.getId());
             System.out.println("\nSuccessfully removed Flight " + flight.getAirlineCode()
                     + flight.getFlightNumber() + "!");
         }
@@ -441,22 +462,40 @@ public class LoginPage {
 
      */
 
+    // EFFECTS: finishes writing the journal, or saves accounts and flights to file if there is no journal
+    void saveOnExit() {
+        Journal journal = this.account.getJournal();
+        if (journal == null) {
+            saveAccounts();
+            saveFlights();
+            return;
+        }
+        if (compactor != null) {
+            compactor.stop();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + JOURNAL);
+        }
+    }
+
     // EFFECTS: saves accounts to file
     void saveAccounts() {
         try {
             jsonWriterAccounts.open();
             jsonWriterAccounts.write(account);
             jsonWriterAccounts.close();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_ACCOUNTS);
         }
     }
 
     // MODIFIES: accounts
-    // EFFECTS: loads accounts from file
+    // EFFECTS: loads accounts from file, with bookings referring to the loaded flights
     void loadAccounts() {
         try {
-            account = jsonReaderAccounts.readAccounts();
+            account = jsonReaderAccounts.readAccounts(flightSchedule);
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_ACCOUNTS);
         }
@@ -478,7 +517,7 @@ public class LoginPage {
             jsonWriterFlights.open();
             jsonWriterFlights.write(flightSchedule);
             jsonWriterFlights.close();
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_FLIGHTS);
         }
     }
@@ -127,7 +127,7 @@ public class SignUpPage {
     MODIFIES: this
     EFFECTS: when the user fills in all information and signs up, this checks for if all requires fields are
              filled in and creates a new passenger and add it to list of accounts,
-             else, print an error message
+             else, or if the email is already registered, print an error message
      */
     void buttonAction(JLabel feedbackMsg) {
         for (int i = 0; i < this.textFields.size(); i++) {
@@ -144,7 +144,11 @@ public class SignUpPage {
                     this.textFields.get(3).getText(), this.textFields.get(4).getText(),
                     dateOfBirth, this.textFields.get(5).getText());
             passenger.setMiddleName(this.textFields.get(1).getText());
-            this.account.addPassenger(this.textFields.get(3).getText(), passenger);
+            if (!this.account.signUp(this.textFields.get(3).getText(), passenger)) {
+                feedbackMsg.setForeground(Color.red);
+                feedbackMsg.setText("That email address is already registered!");
+                return;
+            }
             this.frame.getContentPane().removeAll();
             this.frame.repaint();
             new AirplaneApp(this.frame, this.account, this.flightSchedule, passenger);
@@ -5,6 +5,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,11 +41,11 @@ class AccountTest {
     @Test
     void deleteAndReplacePassenger() {
         account.deletePassenger("c");
-        assertEquals(2, account.accounts.size());
+        assertEquals(2, account.size());
 
         p1.setEmailAddress("s");
         account.replacePassenger("s", p1);
-        assertEquals(2, account.accounts.size());
+        assertEquals(2, account.size());
         assertEquals("s", account.retrievePassenger("s").getEmailAddress());
     }
 
@@ -59,6 +63,77 @@ class AccountTest {
         assertEquals(p4, account.retrievePassenger(p4.getEmailAddress()));
     }
 
+    @Test
+    void signUp() {
+        Passenger p4 = new Passenger("P", "P", "c", "round", LocalDate.of(1994, 2, 25), "192");
+        assertFalse(account.signUp("c", p4));
+        assertEquals(p1, account.retrievePassenger("c"));
+        assertTrue(account.signUp("p", p4));
+        assertEquals(p4, account.retrievePassenger("p"));
+        assertEquals(4, account.size());
+        assertFalse(account.isEmpty());
+        assertTrue(account.getPassengers().contains(p4));
+    }
+
+    @Test
+    void changeEmail() {
+        assertFalse(account.changeEmail("c", "s"));
+        assertEquals(p1, account.retrievePassenger("c"));
+        assertEquals(p2, account.retrievePassenger("s"));
+        assertFalse(account.changeEmail("nobody", "x"));
+
+        assertTrue(account.changeEmail("c", "new"));
+        assertNull(account.retrievePassenger("c"));
+        assertEquals(p1, account.retrievePassenger("new"));
+        assertEquals("new", p1.getEmailAddress());
+        assertEquals(1, account.matchPassword("new", "play"));
+        assertEquals(3, account.size());
+    }
+
+    @Test
+    void concurrentSignUpsAndLogins() throws InterruptedException {
+        AtomicInteger signedUp = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    Passenger passenger = new Passenger("T", "T", "t" + j, "pw",
+                            LocalDate.of(2000, 1, 1), "000");
+                    if (account.signUp("t" + j, passenger)) {
+                        signedUp.incrementAndGet();
+                    }
+                    assertEquals(1, account.matchPassword("t" + j, "pw"));
+                    assertEquals(1, account.matchPassword("c", "play"));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, signedUp.get());
+        assertEquals(1003, account.size());
+    }
+
+    @Test
+    void testBookAndCancelFlight() {
+        Flight flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 300, 200, 80, 1);
+        assertTrue(account.bookFlight(p1, flight, 3));
+        assertFalse(account.bookFlight(p1, flight, 1));
+        assertFalse(account.bookFlight(p2, flight, 3));
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertEquals(200, flight.getAvailableEconomySeats());
+
+        assertTrue(account.cancelFlight(p1, flight.getId()));
+        assertFalse(account.cancelFlight(p1, flight.getId()));
+        assertFalse(p1.hasFlight(flight));
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertNull(account.getJournal());
+    }
+
     @Test
     void testToJson() {
         JSONObject json = account.toJson();
@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AirportTrieTest {
+
+    private AirportTrie trie;
+
+    @BeforeEach
+    void runBefore() {
+        trie = new AirportTrie();
+        trie.addDeparture("YVR");
+        trie.addDeparture("YVR");
+        trie.addDeparture("YYZ");
+        trie.addDeparture("yyc");
+        trie.addDeparture("LAX");
+    }
+
+    @Test
+    void testComplete() {
+        assertEquals(List.of("YVR", "YYC", "YYZ"), trie.complete("Y", 10));
+        assertEquals(List.of("YYC", "YYZ"), trie.complete("yy", 10));
+        assertEquals(List.of("YVR"), trie.complete("Y", 1));
+        assertEquals(List.of("LAX"), trie.complete("LAX", 10));
+        assertEquals(List.of("LAX", "YVR", "YYC", "YYZ"), trie.complete("", 10));
+        assertTrue(trie.complete("YEG", 10).isEmpty());
+    }
+
+    @Test
+    void testRemoveDeparture() {
+        assertEquals(2, trie.getDepartures("yvr"));
+        trie.removeDeparture("YVR");
+        assertEquals(List.of("YVR", "YYC", "YYZ"), trie.complete("Y", 10));
+        trie.removeDeparture("YVR");
+        assertEquals(0, trie.getDepartures("YVR"));
+        assertEquals(0, trie.getDepartures("YV"));
+        assertEquals(0, trie.getDepartures("ABC"));
+        assertEquals(List.of("YYC", "YYZ"), trie.complete("Y", 10));
+        assertTrue(trie.complete("YV", 10).isEmpty());
+    }
+
+    @Test
+    void testCompleteByName() {
+        trie.addAirportName("YVR", "Vancouver International");
+        trie.addAirportName("YYZ", "Toronto Pearson");
+        trie.addAirportName("YTZ", "Toronto Billy Bishop");
+        assertEquals(List.of("YVR"), trie.complete("vanc", 10));
+        assertEquals(List.of("YYZ"), trie.complete("Toronto", 10));
+
+        trie.addAirportName("LAX", "Los Angeles");
+        trie.addAirportName("YLW", "Lake Country");
+        assertEquals(List.of("LAX"), trie.complete("L", 10));
+    }
+}
@@ -0,0 +1,288 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCoordinatorTest {
+
+    private BookingCoordinator coordinator;
+    private Passenger passenger;
+    private Flight f1;
+    private Flight f2;
+
+    @BeforeEach
+    void runBefore() {
+        coordinator = new BookingCoordinator();
+        passenger = new Passenger("C", "L", "c", "play", LocalDate.of(2003, 1, 1), "000");
+        f1 = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 1);
+        f2 = new Flight("AC", 124, LocalDateTime.of(2022, 3, 24, 10, 0),
+                LocalDateTime.of(2022, 3, 24, 14, 30), "YVR", "YYZ",
+                300, 200, 80, 20);
+    }
+
+    @Test
+    void testStripes() {
+        assertEquals(BookingCoordinator.DEFAULT_STRIPES, coordinator.getStripes());
+        assertEquals(1, new BookingCoordinator(1).getStripes());
+        assertEquals(8, new BookingCoordinator(5).getStripes());
+
+        int[] order = coordinator.lockOrder(f2.getId(), f1.getId(), f2.getId());
+        for (int i = 1; i < order.length; i++) {
+            assertTrue(order[i - 1] < order[i]);
+        }
+        assertSame(coordinator.lockFor(f1.getId()), coordinator.lockFor(f1.getId()));
+    }
+
+    @Test
+    void testBookAndCancel() {
+        assertTrue(coordinator.book(passenger, f1, 3));
+        assertFalse(coordinator.book(passenger, f1, 1));
+        assertEquals(0, f1.getAvailableFirstClassSeats());
+        assertEquals(200, f1.getAvailableEconomySeats());
+
+        assertTrue(coordinator.cancel(passenger, f1.getId()));
+        assertFalse(coordinator.cancel(passenger, f1.getId()));
+        assertEquals(1, f1.getAvailableFirstClassSeats());
+        assertFalse(passenger.hasFlight(f1));
+    }
+
+    @Test
+    void testBookGroup() {
+        List<Passenger> group = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            group.add(new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "000"));
+        }
+        int events = countEvents();
+        assertTrue(coordinator.bookGroup(group, f2, 2));
+        assertEquals(events + 1, countEvents());
+        assertEquals(30, f2.getAvailableBusinessSeats());
+        for (Passenger p : group) {
+            assertTrue(p.hasFlight(f2));
+            assertEquals(2, p.getBookedFlight(f2.getId()).getSeat());
+        }
+
+        List<Passenger> tooMany = new ArrayList<>(group.subList(0, 31));
+        tooMany.replaceAll(p -> new Passenger("Q", "Q", "q", "pw", LocalDate.of(2000, 1, 1), "000"));
+        assertFalse(coordinator.bookGroup(tooMany, f2, 2));
+        assertEquals(30, f2.getAvailableBusinessSeats());
+        assertFalse(tooMany.get(0).hasFlight(f2));
+
+        assertFalse(coordinator.bookGroup(List.of(passenger, group.get(0)), f2, 1));
+        assertFalse(coordinator.bookGroup(List.of(passenger, passenger), f2, 1));
+        assertFalse(passenger.hasFlight(f2));
+        assertEquals(200, f2.getAvailableEconomySeats());
+    }
+
+    private int countEvents() {
+        int count = 0;
+        for (Event ignored : EventLog.getInstance()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    void testChangeFlight() {
+        assertTrue(coordinator.book(passenger, f2, 1));
+        assertTrue(coordinator.changeFlight(passenger, f2.getId(), f1, 3));
+        assertTrue(passenger.hasFlight(f1));
+        assertFalse(passenger.hasFlight(f2));
+        assertEquals(200, f2.getAvailableEconomySeats());
+
+        Passenger other = new Passenger("S", "S", "s", "pw", LocalDate.of(2001, 12, 1), "250");
+        assertTrue(coordinator.book(other, f2, 1));
+        assertFalse(coordinator.changeFlight(other, f2.getId(), f1, 3));
+        assertTrue(other.hasFlight(f2));
+        assertFalse(coordinator.changeFlight(other, f1.getId(), f2, 1));
+        assertFalse(coordinator.changeFlight(passenger, f1.getId(), f1, 1));
+    }
+
+    @Test
+    void testWaitlist() {
+        Flight flight = f2;
+        flight.setAvailableFirstClassSeats(1);
+        Passenger p1 = new Passenger("Christie", "Leung", "a@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger p2 = new Passenger("Amy", "Lee", "b@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger p3 = new Passenger("Bob", "Ross", "c@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+
+        assertTrue(coordinator.joinWaitlist(p1, flight, 3));
+        assertTrue(p1.hasFlight(flight));
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertEquals(0, flight.getWaitlistSize(3));
+        assertFalse(coordinator.joinWaitlist(p1, flight, 3));
+
+        assertTrue(coordinator.joinWaitlist(p2, flight, 3));
+        assertTrue(coordinator.joinWaitlist(p3, flight, 3));
+        assertFalse(p2.hasFlight(flight));
+        assertEquals(2, flight.getWaitlistSize(3));
+        assertEquals(0, flight.getWaitlistSize(1));
+
+        assertTrue(coordinator.cancel(p1, flight.getId()));
+        assertTrue(p2.hasFlight(flight));
+        assertEquals(3, p2.getBookedFlight(flight.getId()).getSeat());
+        assertNotNull(p2.getBookedFlight(flight.getId()).getSeatNumber());
+        assertFalse(p3.hasFlight(flight));
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertEquals(1, flight.getWaitlistSize(3));
+
+        assertTrue(flight.leaveWaitlist(p3, 3));
+        assertFalse(flight.leaveWaitlist(p3, 3));
+        assertTrue(coordinator.cancel(p2, flight.getId()));
+        assertFalse(p3.hasFlight(flight));
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+    }
+
+    @Test
+    void testWaitlistSkipsPassengersWhoAlreadyBooked() {
+        Flight flight = f2;
+        flight.setAvailableBusinessSeats(0);
+        Passenger p1 = new Passenger("Christie", "Leung", "a@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger p2 = new Passenger("Amy", "Lee", "b@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+        assertTrue(coordinator.joinWaitlist(p1, flight, 2));
+        assertTrue(coordinator.joinWaitlist(p2, flight, 2));
+        assertTrue(coordinator.book(p1, flight, 1));
+
+        coordinator.release(flight, 2);
+        assertEquals(1, p1.getBookedFlight(flight.getId()).getSeat());
+        assertEquals(2, p2.getBookedFlight(flight.getId()).getSeat());
+        assertEquals(0, flight.getAvailableBusinessSeats());
+        assertEquals(0, flight.getWaitlistSize(2));
+    }
+
+    @Test
+    void testChangeFlightPromotesWaitlist() {
+        f2.setAvailableEconomySeats(1);
+        Passenger waiting = new Passenger("Amy", "Lee", "b@gmail.com", "pw", LocalDate.of(2003, 1, 1), "000");
+        assertTrue(coordinator.book(passenger, f2, 1));
+        assertTrue(coordinator.joinWaitlist(waiting, f2, 1));
+        assertFalse(waiting.hasFlight(f2));
+
+        assertTrue(coordinator.changeFlight(passenger, f2.getId(), f1, 1));
+        assertTrue(waiting.hasFlight(f2));
+        assertEquals(0, f2.getAvailableEconomySeats());
+    }
+
+    @Test
+    void testConcurrentBookAndCancelKeepSeatsConsistent() throws Exception {
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            flights.add(new Flight("AC", i, LocalDateTime.of(2022, 4, 24, 8, 0),
+                    LocalDateTime.of(2022, 4, 24, 12, 0), "YVR", "YYZ", 30, 20, 7, 3));
+        }
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            passengers.add(new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "000"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger calls = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2000; i++) {
+                    Passenger p = passengers.get(random.nextInt(passengers.size()));
+                    Flight flight = flights.get(random.nextInt(flights.size()));
+                    if (random.nextInt(3) == 0) {
+                        coordinator.cancel(p, flight.getId());
+                    } else if (random.nextBoolean()) {
+                        coordinator.book(p, flight, 1 + random.nextInt(3));
+                    } else {
+                        Flight other = flights.get(random.nextInt(flights.size()));
+                        coordinator.changeFlight(p, flight.getId(), other, 1 + random.nextInt(3));
+                    }
+                    calls.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(16000, calls.get());
+
+        for (Flight flight : flights) {
+            int[] booked = new int[3];
+            for (Passenger p : passengers) {
+                BookedFlight bookedFlight = p.getBookedFlight(flight.getId());
+                if (bookedFlight != null) {
+                    booked[bookedFlight.getSeat() - 1]++;
+                }
+            }
+            assertEquals(20, flight.getAvailableEconomySeats() + booked[0]);
+            assertEquals(7, flight.getAvailableBusinessSeats() + booked[1]);
+            assertEquals(3, flight.getAvailableFirstClassSeats() + booked[2]);
+            assertTrue(flight.getAvailableEconomySeats() >= 0);
+        }
+    }
+
+    @Test
+    void testConcurrentBookingsOnScheduledFlights() throws Exception {
+        FlightSchedule flightSchedule = new FlightSchedule();
+        flightSchedule.enableColumnarStore();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Flight flight = new Flight("AC", i, LocalDateTime.of(2022, 4, 24, 8, 0),
+                    LocalDateTime.of(2022, 4, 24, 12, 0), "YVR", "YYZ", 8, 5, 2, 1);
+            flights.add(flight);
+            flightSchedule.addFlight(flight);
+        }
+        Passenger nobody = new Passenger("N", "B", "nobody", "pw", LocalDate.of(2000, 1, 1), "000");
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            passengers.add(new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "000"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long seed = t;
+            futures.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2000; i++) {
+                    Passenger p = passengers.get(random.nextInt(passengers.size()));
+                    Flight flight = flights.get(random.nextInt(flights.size()));
+                    if (random.nextInt(3) == 0) {
+                        coordinator.cancel(p, flight.getId());
+                    } else {
+                        coordinator.book(p, flight, 1 + random.nextInt(3));
+                    }
+                    if (i % 10 == 0) {
+                        flightSchedule.getAvailableFlights(nobody, 1 + random.nextInt(3));
+                        flightSchedule.getAvailableFlightsUnderPrice(1 + random.nextInt(3), 0);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        for (int seat = 1; seat <= 3; seat++) {
+            List<Flight> available = new ArrayList<>();
+            for (Flight flight : flights) {
+                if (flight.getAvailableSeats(seat) > 0) {
+                    available.add(flight);
+                }
+            }
+            assertEquals(available, flightSchedule.getAvailableFlights(nobody, seat));
+            assertEquals(available, flightSchedule.getAvailableFlightsUnderPrice(seat, 0));
+        }
+    }
+}
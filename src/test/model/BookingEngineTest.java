@@ -0,0 +1,184 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.Journal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingEngineTest {
+
+    private BookingEngine engine;
+    private Passenger passenger;
+    private Flight flight;
+
+    @BeforeEach
+    void runBefore() {
+        engine = new BookingEngine(4, 2);
+        passenger = new Passenger("C", "L", "c", "play", LocalDate.of(2003, 1, 1), "000");
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 1);
+    }
+
+    @AfterEach
+    void runAfter() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void testCapacity() {
+        assertEquals(BookingEngine.DEFAULT_CAPACITY, new BookingEngine().getCapacity());
+        assertEquals(4, engine.getCapacity());
+        assertEquals(8, new BookingEngine(5, 1).getCapacity());
+    }
+
+    @Test
+    void testBookAndCancel() throws Exception {
+        engine.start();
+        assertTrue(engine.book(passenger, flight, 3).get(5, TimeUnit.SECONDS));
+        assertFalse(engine.book(passenger, flight, 1).get(5, TimeUnit.SECONDS));
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertEquals(200, flight.getAvailableEconomySeats());
+
+        assertTrue(engine.cancel(passenger, flight.getId()).get(5, TimeUnit.SECONDS));
+        assertFalse(engine.cancel(passenger, flight.getId()).get(5, TimeUnit.SECONDS));
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertFalse(passenger.hasFlight(flight));
+        assertEquals(4, engine.getProcessed());
+    }
+
+    @Test
+    void testCommandsQueuedBeforeStartAreAppliedInOrder() throws Exception {
+        Passenger other = new Passenger("S", "S", "s", "awesome", LocalDate.of(2001, 12, 1), "250");
+        CompletableFuture<Boolean> first = engine.book(passenger, flight, 3);
+        CompletableFuture<Boolean> second = engine.book(other, flight, 3);
+        CompletableFuture<Boolean> cancel = engine.cancel(passenger, flight.getId());
+        assertFalse(first.isDone());
+
+        engine.start();
+        engine.stop();
+        assertTrue(first.get());
+        assertFalse(second.get());
+        assertTrue(cancel.get());
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertTrue(engine.getBatches() >= 2);
+    }
+
+    @Test
+    void testFullRingIsRejectedWhenNotRunning() throws Exception {
+        List<CompletableFuture<Boolean>> queued = new ArrayList<>();
+        for (int i = 0; i < engine.getCapacity(); i++) {
+            queued.add(engine.cancel(passenger, flight.getId()));
+        }
+        CompletableFuture<Boolean> rejected = engine.book(passenger, flight, 3);
+        ExecutionException e = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+
+        engine.start();
+        engine.stop();
+        for (CompletableFuture<Boolean> future : queued) {
+            assertFalse(future.get());
+        }
+        assertFalse(engine.book(passenger, flight, 3).isDone());
+        for (int i = 0; i < engine.getCapacity() - 1; i++) {
+            engine.cancel(passenger, flight.getId());
+        }
+        assertThrows(ExecutionException.class, () -> engine.book(passenger, flight, 3).get());
+        assertEquals(engine.getCapacity(), engine.getProcessed());
+    }
+
+    @Test
+    void testFullRingWaitsForRunningConsumer() throws Exception {
+        engine.start();
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(engine.cancel(passenger, flight.getId()));
+        }
+        for (CompletableFuture<Boolean> future : futures) {
+            assertFalse(future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(100, engine.getProcessed());
+    }
+
+    @Test
+    void testFailedCommandDoesNotStopEngine() throws Exception {
+        engine.start();
+        CompletableFuture<Boolean> failed = engine.cancel(null, flight.getId());
+        assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(engine.book(passenger, flight, 1).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConcurrentProducersKeepSeatsConsistent() throws Exception {
+        engine.start();
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            passengers.add(new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "" + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> producers = new ArrayList<>();
+        for (Passenger p : passengers) {
+            producers.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    CompletableFuture<Boolean> booked = engine.book(p, flight, 3);
+                    CompletableFuture<Boolean> cancelled = engine.cancel(p, flight.getId());
+                    assertEquals(booked.join(), cancelled.join());
+                }
+            }));
+        }
+        for (Future<?> producer : producers) {
+            producer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(8000, engine.getProcessed());
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        for (Passenger p : passengers) {
+            assertFalse(p.hasFlight(flight));
+        }
+    }
+
+    @Test
+    void testCancelPromotesWaitlistAndIsJournaled() throws Exception {
+        Path file = Files.createTempFile("testEngineJournal", ".log");
+        Journal journal = new Journal(file.toString());
+        BookingCoordinator coordinator = new BookingCoordinator();
+        coordinator.setJournal(journal);
+        engine = new BookingEngine(4, 2, coordinator);
+        Passenger other = new Passenger("S", "S", "s", "awesome", LocalDate.of(2001, 12, 1), "250");
+        try {
+            engine.start();
+            assertTrue(engine.book(passenger, flight, 3).get(5, TimeUnit.SECONDS));
+            assertTrue(coordinator.joinWaitlist(other, flight, 3));
+            assertFalse(other.hasFlight(flight));
+
+            assertTrue(engine.cancel(passenger, flight.getId()).get(5, TimeUnit.SECONDS));
+            assertTrue(other.hasFlight(flight));
+            assertEquals(0, flight.getAvailableFirstClassSeats());
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(3, lines.size());
+            assertTrue(lines.get(1).contains("\"cancel\""));
+            assertTrue(lines.get(2).contains("\"book\"") && lines.get(2).contains("\"s\""));
+        } finally {
+            engine.stop();
+            journal.close();
+            Files.delete(file);
+        }
+    }
+}
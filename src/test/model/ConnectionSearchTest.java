@@ -0,0 +1,160 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionSearchTest {
+
+    private FlightSchedule flightSchedule;
+    private ConnectionSearch search;
+    private Flight direct;
+    private Flight toYyc;
+    private Flight yycToYyz;
+    private Flight toYeg;
+    private Flight yegToYyz;
+
+    @BeforeEach
+    void runBefore() {
+        flightSchedule = new FlightSchedule();
+        direct = flight(100, 2022, 4, 24, 8, 0, 13, 0, "YVR", "YYZ");
+        toYyc = flight(200, 2022, 4, 24, 7, 0, 8, 30, "YVR", "YYC");
+        yycToYyz = flight(201, 2022, 4, 24, 9, 30, 13, 30, "YYC", "YYZ");
+        toYeg = flight(300, 2022, 4, 24, 6, 0, 7, 30, "YVR", "YEG");
+        yegToYyz = flight(301, 2022, 4, 24, 8, 15, 11, 30, "YEG", "YYZ");
+        flightSchedule.addFlight(direct);
+        flightSchedule.addFlight(toYyc);
+        flightSchedule.addFlight(yycToYyz);
+        flightSchedule.addFlight(toYeg);
+        flightSchedule.addFlight(yegToYyz);
+        search = new ConnectionSearch(flightSchedule);
+    }
+
+    private Flight flight(int number, int year, int month, int day, int depHour, int depMinute,
+                          int arrHour, int arrMinute, String start, String end) {
+        return new Flight("AC", number, LocalDateTime.of(year, month, day, depHour, depMinute),
+                LocalDateTime.of(year, month, day, arrHour, arrMinute), start, end,
+                300, 200, 80, 20);
+    }
+
+    @Test
+    void testDefaults() {
+        assertEquals(ConnectionSearch.DEFAULT_MIN_CONNECTION_TIME, search.getMinConnectionTime());
+        assertEquals(ConnectionSearch.DEFAULT_MAX_LAYOVER, search.getMaxLayover());
+        assertEquals(ConnectionSearch.DEFAULT_MAX_LEGS, search.getMaxLegs());
+    }
+
+    @Test
+    void testFlightReachedInFewerLegsIsStillExpanded() {
+        FlightSchedule schedule = new FlightSchedule();
+        Flight toYeg = flight(1, 2022, 5, 1, 10, 0, 10, 30, "YVR", "YEG");
+        Flight yegToYyc = flight(2, 2022, 5, 1, 11, 15, 11, 30, "YEG", "YYC");
+        Flight toYyc = flight(3, 2022, 5, 1, 9, 0, 10, 0, "YVR", "YYC");
+        Flight yycToYwg = flight(4, 2022, 5, 1, 12, 15, 13, 0, "YYC", "YWG");
+        Flight ywgToYul = flight(5, 2022, 5, 1, 14, 0, 15, 0, "YWG", "YUL");
+        Flight yulToYyz = flight(6, 2022, 5, 1, 16, 0, 17, 0, "YUL", "YYZ");
+        for (Flight flight : List.of(toYeg, yegToYyc, toYyc, yycToYwg, ywgToYul, yulToYyz)) {
+            schedule.addFlight(flight);
+        }
+        ConnectionSearch fourLegs = new ConnectionSearch(schedule);
+        fourLegs.setMaxLegs(4);
+
+        // YVR-YEG-YYC-YWG reaches YWG sooner but has no legs left to get to YYZ from there
+        List<Itinerary> results = fourLegs.search("YVR", "YYZ", LocalDateTime.of(2022, 5, 1, 0, 0),
+                LocalDateTime.of(2022, 5, 1, 23, 59), 1);
+        assertEquals(1, results.size());
+        assertEquals(List.of(toYyc, yycToYwg, ywgToYul, yulToYyz), results.get(0).getLegs());
+    }
+
+    @Test
+    void testConnectionsStayOutOfSearchCache() {
+        SearchCache cache = flightSchedule.getSearchCache();
+        List<Itinerary> results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(3, results.size());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+    }
+
+    @Test
+    void testSearchOrdersByTravelTime() {
+        List<Itinerary> results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(3, results.size());
+        assertEquals(List.of(direct), results.get(0).getLegs());
+        assertEquals(Duration.ofHours(5), results.get(0).getTotalTravelTime());
+        assertEquals(List.of(toYeg, yegToYyz), results.get(1).getLegs());
+        assertEquals(List.of(toYyc, yycToYyz), results.get(2).getLegs());
+        assertEquals("YVR -[AC300]-> YEG -[AC301]-> YYZ", results.get(1).toString());
+    }
+
+    @Test
+    void testSearchTopN() {
+        List<Itinerary> results = search.search("yvr", "yyz", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 1);
+        assertEquals(1, results.size());
+        assertEquals(direct, results.get(0).getFirstLeg());
+    }
+
+    @Test
+    void testMinConnectionTime() {
+        search.setMinConnectionTime(Duration.ofMinutes(30));
+        assertEquals(3, search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5).size());
+
+        search.setMinConnectionTime(Duration.ofMinutes(60));
+        List<Itinerary> results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(2, results.size());
+        assertEquals(List.of(toYyc, yycToYyz), results.get(1).getLegs());
+    }
+
+    @Test
+    void testMaxLayoverAndLegs() {
+        search.setMaxLayover(Duration.ofMinutes(50));
+        List<Itinerary> results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(2, results.size());
+        assertEquals(List.of(toYeg, yegToYyz), results.get(1).getLegs());
+
+        search.setMaxLayover(Duration.ofHours(12));
+        search.setMaxLegs(1);
+        results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getNumberOfLegs());
+    }
+
+    @Test
+    void testDepartureWindow() {
+        List<Itinerary> results = search.search("YVR", "YYZ", LocalDateTime.of(2022, 4, 24, 6, 30),
+                LocalDateTime.of(2022, 4, 24, 7, 30), 5);
+        assertEquals(1, results.size());
+        assertEquals(List.of(toYyc, yycToYyz), results.get(0).getLegs());
+    }
+
+    @Test
+    void testNoRevisitAndIncrementalUpdate() {
+        assertEquals(0, search.search("YYZ", "YVR", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5).size());
+
+        flightSchedule.addFlight(flight(400, 2022, 4, 24, 14, 0, 16, 0, "YYZ", "YVR"));
+        flightSchedule.addFlight(flight(401, 2022, 4, 24, 17, 0, 18, 0, "YVR", "YYC"));
+        List<Itinerary> results = search.search("YYZ", "YVR", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(1, results.size());
+        assertEquals(400, results.get(0).getFirstLeg().getFlightNumber());
+
+        results = search.search("YYZ", "YYC", LocalDateTime.of(2022, 4, 24, 0, 0),
+                LocalDateTime.of(2022, 4, 24, 23, 59), 5);
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).visits("yvr"));
+        assertFalse(results.get(0).visits("YEG"));
+    }
+}
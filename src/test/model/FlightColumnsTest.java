@@ -0,0 +1,126 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightColumnsTest {
+
+    private FlightColumns columns;
+    private Flight f1;
+    private Flight f2;
+
+    @BeforeEach
+    void runBefore() {
+        columns = new FlightColumns();
+        f1 = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20);
+        f2 = new Flight("AC", 124, LocalDateTime.of(2022, 4, 25, 10, 0),
+                LocalDateTime.of(2022, 4, 25, 14, 30), "YVR", "YYZ",
+                300, 0, 80, 0);
+        f1.setEconomyPrice(200);
+        f2.setBusinessPrice(900);
+        assertEquals(0, columns.add(f1));
+        assertEquals(1, columns.add(f2));
+    }
+
+    @Test
+    void testFindAvailableUnderPrice() {
+        assertEquals(List.of(f1), columns.findAvailableUnderPrice(1, 200));
+        assertEquals(0, columns.findAvailableUnderPrice(1, 199).size());
+        assertEquals(List.of(f1, f2), columns.findAvailableUnderPrice(2, 900));
+        assertEquals(List.of(f1), columns.findAvailableUnderPrice(3, 1000));
+    }
+
+    @Test
+    void testFindAvailableDepartingBetween() {
+        assertEquals(List.of(f2), columns.findAvailableDepartingBetween(2,
+                LocalDateTime.of(2022, 4, 25, 0, 0), LocalDateTime.of(2022, 4, 25, 10, 0)));
+        assertEquals(0, columns.findAvailableDepartingBetween(1,
+                LocalDateTime.of(2022, 4, 25, 0, 0), LocalDateTime.of(2022, 4, 26, 0, 0)).size());
+    }
+
+    @Test
+    void testUpdateRemoveAndGrow() {
+        f1.bookEconomy();
+        assertEquals(200, columns.countAvailableSeats(1));
+        columns.update(0, f1);
+        assertEquals(199, columns.countAvailableSeats(1));
+
+        columns.remove(0);
+        assertEquals(1, columns.size());
+        assertEquals(f2, columns.getFlight(0));
+        assertEquals(0, columns.countAvailableSeats(1));
+        assertEquals(80, columns.countAvailableSeats(2));
+        assertEquals(0, columns.countAvailableSeats(3));
+
+        for (int i = 0; i < 40; i++) {
+            columns.add(f1);
+        }
+        assertEquals(41, columns.size());
+        assertEquals(40 * 199, columns.countAvailableSeats(1));
+        assertEquals(41 * 80, columns.countAvailableSeats(2));
+        assertEquals(40 * 20, columns.countAvailableSeats(3));
+    }
+
+    @Test
+    void testMarkChangedRefreshesOnRead() {
+        f1.bookEconomy();
+        assertEquals(200, columns.countAvailableSeats(1));
+        columns.markChanged(0);
+        assertEquals(199, columns.countAvailableSeats(1));
+
+        f2.setBusinessPrice(100);
+        columns.markChanged(1);
+        columns.markChanged(5);
+        assertEquals(List.of(f1, f2), columns.findAvailableUnderPrice(2, 100));
+    }
+
+    @Test
+    void testMarksSurviveGrowing() {
+        f1.bookEconomy();
+        columns.markChanged(0);
+        for (int i = 0; i < 100; i++) {
+            columns.add(f2);
+        }
+        assertEquals(199, columns.countAvailableSeats(1));
+    }
+
+    @Test
+    void testConcurrentBookingsOnScheduledFlights() throws Exception {
+        FlightSchedule flightSchedule = new FlightSchedule();
+        flightSchedule.enableColumnarStore();
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            Flight flight = new Flight("AC", i, LocalDateTime.of(2022, 4, 24, 18, 0),
+                    LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 300, 50, 0, 0);
+            flights.add(flight);
+            flightSchedule.addFlight(flight);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (Flight flight : flights) {
+                    while (flight.tryBook(1)) {
+                        flightSchedule.getAvailableFlightsUnderPrice(1, 0);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertTrue(flightSchedule.getAvailableFlightsUnderPrice(1, 0).isEmpty());
+    }
+}
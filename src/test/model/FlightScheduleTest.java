@@ -4,7 +4,10 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,6 +45,81 @@ class FlightScheduleTest {
         assertEquals(0, flightSchedule.getFlightsByDestination("YEG", "YYZ").size());
     }
 
+    @Test
+    void getFlightsByDestinationIgnoresCase() {
+        assertEquals(1, flightSchedule.getFlightsByDestination("ywr", "yeg").size());
+        assertEquals(2, flightSchedule.getFlightsByDestination("yWr", "YYz").size());
+        assertTrue(flightSchedule.getFlightsByDestination("YWR", "YYZ").contains(f2));
+        assertTrue(flightSchedule.getFlightsByDestination("YWR", "YYZ").contains(f3));
+
+        flightSchedule.getFlightsByDestination("YWR", "YYZ").clear();
+        assertEquals(2, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+    }
+
+    @Test
+    void getFlightsByDepartureWindow() {
+        Flight f4 = new Flight("AC", 247, LocalDateTime.of(2022, 5, 24, 10, 0),
+                LocalDateTime.of(2022, 5, 24, 14, 30), "YWR", "YYZ",
+                300, 200, 80, 20);
+        flightSchedule.addFlight(f4);
+
+        List<Flight> flights = flightSchedule.getFlightsByDepartureWindow("YWR", "YYZ",
+                LocalDateTime.of(2022, 5, 24, 6, 0), LocalDateTime.of(2022, 5, 24, 12, 0));
+        assertEquals(2, flights.size());
+        assertTrue(flights.contains(f3));
+        assertTrue(flights.contains(f4));
+
+        flights = flightSchedule.getFlightsByDepartureWindow("ywr", "yyz",
+                LocalDateTime.of(2022, 3, 24, 10, 0), LocalDateTime.of(2022, 5, 24, 9, 59));
+        assertEquals(1, flights.size());
+        assertEquals(f2, flights.get(0));
+
+        assertEquals(0, flightSchedule.getFlightsByDepartureWindow("YWR", "YEG",
+                LocalDateTime.of(2022, 5, 1, 0, 0), LocalDateTime.of(2022, 5, 31, 0, 0)).size());
+        assertEquals(0, flightSchedule.getFlightsByDepartureWindow("YEG", "YWR",
+                LocalDateTime.of(2022, 1, 1, 0, 0), LocalDateTime.of(2022, 12, 31, 0, 0)).size());
+    }
+
+    @Test
+    void getCheapestFlights() {
+        LocalDateTime from = LocalDateTime.of(2022, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2022, 5, 31, 0, 0);
+        for (int i = 0; i < 10; i++) {
+            Flight flight = new Flight("AC", 300 + i, LocalDateTime.of(2022, 4, 1 + i, 9, 0),
+                    LocalDateTime.of(2022, 4, 1 + i, 13, 0), "YWR", "YYZ",
+                    300, 200, 80, 20);
+            flight.setEconomyPrice(500 - i * 10);
+            flight.setBusinessPrice(1000);
+            flightSchedule.addFlight(flight);
+        }
+        f2.setEconomyPrice(100);
+        f3.setEconomyPrice(50);
+        f3.setAvailableEconomySeats(0);
+
+        List<Flight> cheapest = flightSchedule.getCheapestFlights("YWR", "YYZ", 1, from, to, 3);
+        assertEquals(3, cheapest.size());
+        assertEquals(f2, cheapest.get(0));
+        assertEquals(309, cheapest.get(1).getFlightNumber());
+        assertEquals(308, cheapest.get(2).getFlightNumber());
+
+        cheapest = flightSchedule.getCheapestFlights("YWR", "YYZ", 1, from,
+                LocalDateTime.of(2022, 4, 3, 0, 0), 5);
+        assertEquals(3, cheapest.size());
+        assertEquals(301, cheapest.get(1).getFlightNumber());
+
+        cheapest = flightSchedule.getCheapestFlights("YWR", "YYZ", 2, from, to, 2);
+        assertEquals(f2, cheapest.get(0));
+        assertEquals(f3, cheapest.get(1));
+        assertEquals(0, flightSchedule.getCheapestFlights("YWR", "LAX", 1, from, to, 2).size());
+    }
+
+    @Test
+    void getFlightsByDestinationSortedByDeparture() {
+        List<Flight> flights = flightSchedule.getFlightsByDestination("YWR", "YYZ");
+        assertEquals(f2, flights.get(0));
+        assertEquals(f3, flights.get(1));
+    }
+
     @Test
     void addFlight() {
         Flight f4 = new Flight("AC", 123, LocalDateTime.of(2022, 3, 22, 15, 0),
@@ -51,6 +129,201 @@ class FlightScheduleTest {
         assertEquals(1, flightSchedule.getFlightsByDestination("YWR", "LAX").size());
     }
 
+    @Test
+    void getFlight() {
+        assertEquals(f1, flightSchedule.getFlight(f1.getId()));
+        assertEquals(f2, flightSchedule.getFlight(f2.getId()));
+        assertEquals(f3, flightSchedule.getFlight(f3.getId()));
+        assertNull(flightSchedule.getFlight(UUID.randomUUID()));
+    }
+
+    @Test
+    void removeFlight() {
+        assertEquals(f1, flightSchedule.removeFlight(f1.getId()));
+        assertNull(flightSchedule.removeFlight(f1.getId()));
+        assertNull(flightSchedule.getFlight(f1.getId()));
+        assertEquals(2, flightSchedule.getFlightSchedule().size());
+        assertEquals(0, flightSchedule.getFlightsByDestination("YWR", "YEG").size());
+        assertEquals(2, flightSchedule.getDeparturesFrom("YWR", LocalDateTime.of(2022, 1, 1, 0, 0),
+                LocalDateTime.of(2022, 12, 31, 0, 0)).size());
+
+        assertEquals(f3, flightSchedule.getFlight(f3.getId()));
+        assertEquals(f3, flightSchedule.removeFlight(f3.getId()));
+        assertEquals(1, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+        assertEquals(f2, flightSchedule.getFlight(f2.getId()));
+        assertEquals(f2, flightSchedule.removeFlight(f2.getId()));
+        assertTrue(flightSchedule.getFlightSchedule().isEmpty());
+    }
+
+    @Test
+    void removeFlightAfterItsDepartureChanged() {
+        LocalDateTime moved = LocalDateTime.of(2022, 6, 1, 9, 0);
+        f2.setDepartureTime(moved);
+        assertEquals(List.of(f3, f2), flightSchedule.getFlightsByDestination("YWR", "YYZ"));
+        assertEquals(List.of(f2), flightSchedule.getFlightsByDepartureWindow("YWR", "YYZ", moved, moved));
+        assertTrue(flightSchedule.getFlightsByDepartureWindow("YWR", "YYZ", LocalDateTime.of(2022, 3, 24, 10, 0),
+                LocalDateTime.of(2022, 3, 24, 10, 0)).isEmpty());
+        assertEquals(List.of(f2), flightSchedule.getDeparturesFrom("YWR", moved, moved));
+
+        assertEquals(f2, flightSchedule.removeFlight(f2.getId()));
+        assertEquals(List.of(f3), flightSchedule.getFlightsByDestination("YWR", "YYZ"));
+        assertTrue(flightSchedule.getDeparturesFrom("YWR", moved, moved).isEmpty());
+        assertEquals(2, flightSchedule.getFlightSchedule().size());
+    }
+
+    @Test
+    void updateMovesFlightToNewRoute() {
+        f1.setStartLocation("YVR");
+        f1.setEndLocation("YYZ");
+        assertTrue(flightSchedule.getFlightsByDestination("YWR", "YEG").isEmpty());
+        assertEquals(List.of(f1), flightSchedule.getFlightsByDestination("yvr", "yyz"));
+        assertEquals(List.of("YVR"), flightSchedule.autocompleteAirport("YV", 5));
+        assertEquals(f1, flightSchedule.removeFlight(f1.getId()));
+        assertTrue(flightSchedule.getFlightsByDestination("YVR", "YYZ").isEmpty());
+        assertTrue(flightSchedule.autocompleteAirport("YV", 5).isEmpty());
+    }
+
+    @Test
+    void getFlightScheduleIsACopy() {
+        List<Flight> flights = flightSchedule.getFlightSchedule();
+        flightSchedule.removeFlight(f1.getId());
+        assertEquals(List.of(f1, f2, f3), flights);
+        flights.clear();
+        assertEquals(2, flightSchedule.getFlightSchedule().size());
+    }
+
+    @Test
+    void getAvailableFlightsUnderPrice() {
+        f1.setEconomyPrice(150);
+        f2.setEconomyPrice(300);
+        f3.setEconomyPrice(100);
+        f3.setAvailableEconomySeats(0);
+        assertEquals(List.of(f1), flightSchedule.getAvailableFlightsUnderPrice(1, 200));
+
+        assertFalse(flightSchedule.isColumnarStoreEnabled());
+        flightSchedule.enableColumnarStore();
+        assertTrue(flightSchedule.isColumnarStoreEnabled());
+        assertEquals(List.of(f1), flightSchedule.getAvailableFlightsUnderPrice(1, 200));
+
+        f3.addEconomySeat();
+        assertEquals(List.of(f1, f3), flightSchedule.getAvailableFlightsUnderPrice(1, 200));
+        f1.setEconomyPrice(250);
+        assertEquals(List.of(f3), flightSchedule.getAvailableFlightsUnderPrice(1, 200));
+        assertEquals(3, flightSchedule.getAvailableFlightsUnderPrice(2, 0).size());
+    }
+
+    @Test
+    void columnarStoreFollowsAddAndRemove() {
+        flightSchedule.enableColumnarStore();
+        Flight f4 = new Flight("AC", 124, LocalDateTime.of(2022, 3, 22, 15, 0),
+                LocalDateTime.of(2022, 3, 22, 17, 30), "YWR", "LAX",
+                300, 200, 80, 20);
+        f4.setFirstClassPrice(900);
+        flightSchedule.addFlight(f4);
+        assertEquals(List.of(f1, f2, f3), flightSchedule.getAvailableFlightsUnderPrice(3, 800));
+
+        flightSchedule.removeFlight(f1.getId());
+        assertEquals(List.of(f4, f2, f3), flightSchedule.getAvailableFlightsUnderPrice(3, 1000));
+
+        f1.bookFirstClass();
+        f4.setFirstClassPrice(100);
+        assertEquals(List.of(f4, f2, f3), flightSchedule.getAvailableFlightsUnderPrice(3, 100));
+    }
+
+    @Test
+    void findFlights() {
+        assertEquals(List.of(f1, f3), flightSchedule.findFlights(f -> f.getDepartureTime().getMonthValue() != 3));
+        assertEquals(0, flightSchedule.findFlights(Flight::isFull).size());
+    }
+
+    @Test
+    void findFlightsInParallel() {
+        for (int i = 0; i < FlightSchedule.PARALLEL_SEARCH_THRESHOLD * 4; i++) {
+            Flight flight = new Flight("AC", i, LocalDateTime.of(2022, 3, 22, 15, 0),
+                    LocalDateTime.of(2022, 3, 22, 17, 30), "YWR", "LAX",
+                    300, 200, 80, 20);
+            flight.setAirplaneModel(i % 3 == 0 ? "A320" : "B737");
+            flightSchedule.addFlight(flight);
+        }
+        List<Flight> flights = flightSchedule.findFlights(f -> f.getAirplaneModel().equals("A320"));
+        assertEquals(FlightSchedule.PARALLEL_SEARCH_THRESHOLD * 4 / 3 + 1, flights.size());
+        for (int i = 0; i < flights.size(); i++) {
+            assertEquals(i * 3, flights.get(i).getFlightNumber());
+        }
+    }
+
+    @Test
+    void searchCacheInvalidation() {
+        SearchCache cache = flightSchedule.getSearchCache();
+        assertEquals(2, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+        assertEquals(2, flightSchedule.getFlightsByDestination("ywr", "yyz").size());
+        assertEquals(1, cache.getHits());
+
+        flightSchedule.getFlightsByDestination("YWR", "YEG");
+        int economySeats = f2.getAvailableEconomySeats();
+        f2.bookEconomy();
+        assertEquals(2, cache.size());
+        List<Flight> flights = flightSchedule.getFlightsByDestination("YWR", "YYZ");
+        assertEquals(2, cache.getHits());
+        assertEquals(economySeats - 1, flights.get(flights.indexOf(f2)).getAvailableEconomySeats());
+
+        Flight f4 = new Flight("AC", 124, LocalDateTime.of(2022, 3, 22, 15, 0),
+                LocalDateTime.of(2022, 3, 22, 17, 30), "YWR", "YYZ",
+                300, 200, 80, 20);
+        flightSchedule.addFlight(f4);
+        assertEquals(3, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+        flightSchedule.removeFlight(f4.getId());
+        assertEquals(2, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+        assertEquals(2, cache.getHits());
+
+        f2.setDepartureTime(f2.getDepartureTime().plusHours(1));
+        assertEquals(1, cache.size());
+        assertEquals(2, flightSchedule.getFlightsByDestination("YWR", "YYZ").size());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void autocompleteAirport() {
+        assertEquals(List.of("YWR"), flightSchedule.autocompleteAirport("y", 5));
+        assertTrue(flightSchedule.autocompleteAirport("YY", 5).isEmpty());
+
+        Flight f4 = new Flight("AC", 124, LocalDateTime.of(2022, 3, 22, 15, 0),
+                LocalDateTime.of(2022, 3, 22, 17, 30), "YYZ", "LAX",
+                300, 200, 80, 20);
+        flightSchedule.addFlight(f4);
+        flightSchedule.addAirportName("YYZ", "Toronto Pearson");
+        assertEquals(List.of("YWR", "YYZ"), flightSchedule.autocompleteAirport("Y", 5));
+        assertEquals(List.of("YYZ"), flightSchedule.autocompleteAirport("tor", 5));
+
+        flightSchedule.removeFlight(f4.getId());
+        assertEquals(List.of("YWR"), flightSchedule.autocompleteAirport("Y", 5));
+        assertTrue(flightSchedule.autocompleteAirport("tor", 5).isEmpty());
+    }
+
+    @Test
+    void getAvailableFlights() {
+        Passenger passenger = new Passenger("C", "L", "c", "play", LocalDate.of(2003, 1, 1), "000");
+        assertEquals(List.of(f1, f2, f3), flightSchedule.getAvailableFlights(passenger));
+
+        passenger.addBookedFlight(f2, 1);
+        f3.setAvailableEconomySeats(0);
+        assertEquals(List.of(f1, f3), flightSchedule.getAvailableFlights(passenger));
+        assertEquals(List.of(f1), flightSchedule.getAvailableFlights(passenger, 1));
+        assertEquals(List.of(f1, f3), flightSchedule.getAvailableFlights(passenger, 3));
+
+        f3.setAvailableBusinessSeats(0);
+        f3.setAvailableFirstClassSeats(0);
+        assertEquals(List.of(f1), flightSchedule.getAvailableFlights(passenger));
+        f3.addBusinessSeat();
+        assertEquals(List.of(f1, f3), flightSchedule.getAvailableFlights(passenger));
+        assertEquals(List.of(f1, f3), flightSchedule.getAvailableFlights(passenger, 2));
+
+        flightSchedule.removeFlight(f1.getId());
+        assertEquals(List.of(f3), flightSchedule.getAvailableFlights(passenger));
+        passenger.removeBookedFlight(f2.getId());
+        assertEquals(List.of(f3, f2), flightSchedule.getAvailableFlights(passenger));
+    }
+
     @Test
     void testToJson() {
         JSONObject json = flightSchedule.toJson();
@@ -4,9 +4,13 @@ import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -128,6 +132,83 @@ class FlightTest {
         assertEquals(80, flight.getAvailableBusinessSeats());
     }
 
+    @Test
+    void testTryBookSoldOut() {
+        flight.setAvailableFirstClassSeats(1);
+        assertTrue(flight.tryBook(3));
+        assertFalse(flight.tryBook(3));
+        assertFalse(flight.bookFirstClass());
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+
+        flight.release(3);
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertTrue(flight.bookFirstClass());
+        assertEquals(280, flight.getRemainingSeats());
+    }
+
+    @Test
+    void testTryBookSeveralSeats() {
+        assertTrue(flight.tryBook(2, 75));
+        assertFalse(flight.tryBook(2, 6));
+        assertEquals(5, flight.getAvailableBusinessSeats());
+        assertTrue(flight.tryBook(2, 5));
+        assertFalse(flight.tryBook(2));
+    }
+
+    @Test
+    void testTryBookConcurrently() throws InterruptedException {
+        flight.setAvailableEconomySeats(1000);
+        AtomicInteger booked = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (flight.tryBook(1)) {
+                        booked.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, booked.get());
+        assertEquals(0, flight.getAvailableEconomySeats());
+    }
+
+    @Test
+    void testGetAvailableSeatsAndPrice() {
+        flight.setEconomyPrice(500);
+        flight.setBusinessPrice(700);
+        flight.setFirstClassPrice(1000);
+        assertEquals(200, flight.getAvailableSeats(1));
+        assertEquals(80, flight.getAvailableSeats(2));
+        assertEquals(20, flight.getAvailableSeats(3));
+        assertEquals(500, flight.getPrice(1));
+        assertEquals(700, flight.getPrice(2));
+        assertEquals(1000, flight.getPrice(3));
+    }
+
+    @Test
+    void testObservers() {
+        List<Flight> updates = new ArrayList<>();
+        FlightObserver observer = updates::add;
+        flight.addObserver(observer);
+
+        flight.bookEconomy();
+        flight.addBusinessSeat();
+        flight.setFirstClassPrice(1000);
+        assertEquals(3, updates.size());
+        assertEquals(flight, updates.get(0));
+
+        flight.removeObserver(observer);
+        flight.bookFirstClass();
+        assertEquals(3, updates.size());
+    }
+
     @Test
     void testToString() {
         assertEquals("<html>Flight " + flight.getAirlineCode() + flight.getFlightNumber() + " (" 
@@ -180,7 +261,7 @@ class FlightTest {
         assertEquals(-1, json.getInt("gate number"));
         assertEquals("TBD", json.getString("airplane model"));
         assertEquals(300, json.getInt("max seats"));
+        assertEquals(flight.getSeatCapacity(1), json.getInt("economy capacity"));
+        assertEquals(flight.getSeatCapacity(3), json.getInt("first class capacity"));
     }
-
-
-}
\ No newline at end of file
+}
@@ -87,6 +87,17 @@ class PassengerTest {
         assertEquals(19, f2.getAvailableFirstClassSeats());
     }
 
+    @Test
+    void testAddBookedFlightSoldOut() {
+        f1.setAvailableBusinessSeats(0);
+        assertFalse(passenger.addBookedFlight(f1, 2));
+        assertFalse(passenger.hasFlight(f1));
+        assertEquals(0, f1.getAvailableBusinessSeats());
+
+        assertTrue(passenger.addBookedFlight(f1, 1));
+        assertTrue(passenger.hasFlight(f1));
+    }
+
     @Test
     void testRemoveBookedFlight() {
         passenger.addBookedFlight(f1, 1);
@@ -115,6 +126,22 @@ class PassengerTest {
         assertEquals(20, f1.getAvailableFirstClassSeats());
     }
 
+    @Test
+    void testSeatNumbers() {
+        Passenger other = new Passenger("S", "S", "s", "awesome", LocalDate.of(2001, 12, 1), "250");
+        assertTrue(passenger.addBookedFlight(f1, 3));
+        assertTrue(other.addBookedFlight(f1, 3));
+        assertEquals("1A", passenger.getBookedFlight(f1.getId()).getSeatNumber());
+        assertEquals("1D", other.getBookedFlight(f1.getId()).getSeatNumber());
+        assertEquals(2, f1.getSeatMap().getTakenSeats(3));
+
+        passenger.removeBookedFlight(f1.getId());
+        assertFalse(f1.getSeatMap().isTaken("1A"));
+        assertEquals(1, f1.getSeatMap().getTakenSeats(3));
+        assertTrue(passenger.addBookedFlight(f1, 3));
+        assertEquals("1A", passenger.getBookedFlight(f1.getId()).getSeatNumber());
+    }
+
     @Test
     void testToString() {
         assertEquals("<html>Passenger " + passenger.getId().toString() + ":<br>"
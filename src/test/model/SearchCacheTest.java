@@ -0,0 +1,66 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCacheTest {
+
+    private SearchCache cache;
+    private List<Flight> flights;
+
+    @BeforeEach
+    void runBefore() {
+        cache = new SearchCache(2);
+        flights = new ArrayList<>();
+        flights.add(new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20));
+    }
+
+    @Test
+    void testHitsAndMisses() {
+        assertNull(cache.get("YVR-YEG"));
+        cache.put("YVR-YEG", "YVR-YEG", flights);
+        assertEquals(flights, cache.get("YVR-YEG"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getCapacity());
+
+        flights.clear();
+        assertEquals(1, cache.get("YVR-YEG").size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        cache.put("YVR-YEG", "a", flights);
+        cache.put("YVR-YEG", "b", flights);
+        cache.get("a");
+        cache.put("YVR-YYZ", "c", flights);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void testInvalidateRoute() {
+        cache.put("YVR-YEG", "a", flights);
+        cache.put("YVR-YYZ", "b", flights);
+        cache.invalidateRoute("YVR-YEG");
+        cache.invalidateRoute("YVR-LAX");
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+
+        cache.put("YVR-YEG", "b", flights);
+        cache.invalidateRoute("YVR-YYZ");
+        assertNotNull(cache.get("b"));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,147 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldManagerTest {
+
+    private AtomicLong clock;
+    private BookingCoordinator coordinator;
+    private SeatHoldManager holds;
+    private Flight flight;
+    private Passenger passenger;
+
+    @BeforeEach
+    void runBefore() {
+        clock = new AtomicLong(1_000_000);
+        coordinator = new BookingCoordinator();
+        holds = new SeatHoldManager(coordinator, Duration.ofSeconds(1), 8, clock::get);
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 2);
+        passenger = new Passenger("C", "L", "c", "play", LocalDate.of(2003, 1, 1), "000");
+    }
+
+    @Test
+    void testHoldTakesSeat() {
+        SeatHold hold = holds.hold(flight, 3, Duration.ofSeconds(30));
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertEquals(SeatHold.State.HELD, hold.getState());
+        assertEquals(flight, hold.getFlight());
+        assertEquals(3, hold.getSeat());
+        assertEquals(1_030_000, hold.getExpiresAt());
+        assertNotNull(holds.hold(flight, 3));
+        assertNull(holds.hold(flight, 3));
+        assertEquals(2, holds.getActiveHolds());
+    }
+
+    @Test
+    void testConfirm() {
+        SeatHold hold = holds.hold(flight, 3, Duration.ofSeconds(30));
+        assertTrue(holds.confirm(hold, passenger));
+        assertTrue(passenger.hasFlight(flight));
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertFalse(holds.confirm(hold, new Passenger("S", "S", "s", "pw", LocalDate.of(2001, 1, 1), "1")));
+        assertFalse(holds.release(hold));
+
+        clock.addAndGet(60_000);
+        assertEquals(0, holds.advance());
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+        assertEquals(1, holds.getConfirmedHolds());
+        assertEquals(0, holds.getActiveHolds());
+
+        SeatHold again = holds.hold(flight, 3, Duration.ofSeconds(30));
+        assertFalse(holds.confirm(again, passenger));
+        assertEquals(SeatHold.State.RELEASED, again.getState());
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+    }
+
+    @Test
+    void testRelease() {
+        SeatHold hold = holds.hold(flight, 1, Duration.ofSeconds(30));
+        assertTrue(holds.release(hold));
+        assertFalse(holds.release(hold));
+        assertEquals(200, flight.getAvailableEconomySeats());
+        assertEquals(1, holds.getReleasedHolds());
+        assertEquals(0, holds.getActiveHolds());
+    }
+
+    @Test
+    void testExpiry() {
+        SeatHold shortHold = holds.hold(flight, 1, Duration.ofMillis(2500));
+        SeatHold longHold = holds.hold(flight, 1, Duration.ofSeconds(20));
+        assertEquals(198, flight.getAvailableEconomySeats());
+
+        clock.addAndGet(2000);
+        assertEquals(0, holds.advance());
+        clock.addAndGet(1000);
+        assertEquals(1, holds.advance());
+        assertEquals(SeatHold.State.EXPIRED, shortHold.getState());
+        assertEquals(199, flight.getAvailableEconomySeats());
+
+        clock.addAndGet(16_000);
+        assertEquals(0, holds.advance());
+        assertEquals(SeatHold.State.HELD, longHold.getState());
+        clock.addAndGet(1000);
+        assertEquals(1, holds.advance());
+        assertEquals(200, flight.getAvailableEconomySeats());
+        assertEquals(2, holds.getExpiredHolds());
+        assertEquals(0, holds.getActiveHolds());
+        assertFalse(holds.confirm(longHold, passenger));
+    }
+
+    @Test
+    void testManyHolds() {
+        flight.setAvailableEconomySeats(200_000);
+        for (int i = 0; i < 200_000; i++) {
+            holds.hold(flight, 1, Duration.ofMillis(1 + i % 60_000));
+        }
+        assertEquals(0, flight.getAvailableEconomySeats());
+        assertEquals(200_000, holds.getActiveHolds());
+        clock.addAndGet(60_000);
+        assertEquals(200_000, holds.advance());
+        assertEquals(200_000, flight.getAvailableEconomySeats());
+    }
+
+    @Test
+    void testReleaseAndExpiryPromoteWaitlist() {
+        Passenger first = new Passenger("A", "L", "a", "play", LocalDate.of(2003, 1, 1), "000");
+        Passenger second = new Passenger("B", "L", "b", "play", LocalDate.of(2003, 1, 1), "000");
+        SeatHold released = holds.hold(flight, 3, Duration.ofSeconds(30));
+        SeatHold expiring = holds.hold(flight, 3, Duration.ofSeconds(1));
+        assertTrue(coordinator.joinWaitlist(first, flight, 3));
+        assertTrue(coordinator.joinWaitlist(second, flight, 3));
+        assertFalse(first.hasFlight(flight));
+
+        assertTrue(holds.release(released));
+        assertTrue(first.hasFlight(flight));
+        assertFalse(second.hasFlight(flight));
+        clock.addAndGet(2_000);
+        assertEquals(1, holds.advance());
+        assertTrue(second.hasFlight(flight));
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertEquals(0, flight.getWaitlistSize(3));
+    }
+
+    @Test
+    void testStartAndStop() throws InterruptedException {
+        SeatHoldManager realTime = new SeatHoldManager(coordinator, Duration.ofMillis(10), 8, System::currentTimeMillis);
+        realTime.start();
+        realTime.start();
+        SeatHold hold = realTime.hold(flight, 2, Duration.ofMillis(20));
+        for (int i = 0; i < 200 && hold.getState() == SeatHold.State.HELD; i++) {
+            Thread.sleep(10);
+        }
+        realTime.stop();
+        realTime.stop();
+        assertEquals(SeatHold.State.EXPIRED, hold.getState());
+        assertEquals(80, flight.getAvailableBusinessSeats());
+    }
+}
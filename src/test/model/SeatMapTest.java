@@ -0,0 +1,130 @@
+package model;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTest {
+
+    private SeatMap seatMap;
+
+    @BeforeEach
+    void runBefore() {
+        // first class rows 1-2, business rows 3-4, economy rows 5-6 (the last one only has A-D)
+        seatMap = new SeatMap(10, 8, 6);
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(10, seatMap.getCapacity(1));
+        assertEquals(8, seatMap.getCapacity(2));
+        assertEquals(6, seatMap.getCapacity(3));
+        assertEquals(0, seatMap.getTakenSeats(1));
+        assertFalse(seatMap.isTaken("1A"));
+        assertFalse(seatMap.isTaken("2E"));
+        assertFalse(seatMap.isTaken("XA"));
+    }
+
+    @Test
+    void testAssignPrefersWindowSeats() {
+        assertEquals("5A", seatMap.assign(1));
+        assertEquals("5F", seatMap.assign(1));
+        assertEquals("6A", seatMap.assign(1));
+        assertEquals("5B", seatMap.assign(1));
+        assertEquals("1A", seatMap.assign(3));
+        assertEquals("3A", seatMap.assign(2));
+        assertEquals(4, seatMap.getTakenSeats(1));
+        assertTrue(seatMap.isTaken("5B"));
+        assertFalse(seatMap.isTaken("6D"));
+    }
+
+    @Test
+    void testAssignWindow() {
+        assertEquals("1A", seatMap.assignWindow(3));
+        assertEquals("1D", seatMap.assignWindow(3));
+        assertEquals("2A", seatMap.assignWindow(3));
+        assertNull(seatMap.assignWindow(3));
+        assertEquals("1B", seatMap.assign(3));
+        assertEquals("1C", seatMap.assign(3));
+        assertEquals("2B", seatMap.assign(3));
+        assertNull(seatMap.assign(3));
+        assertEquals(6, seatMap.getTakenSeats(3));
+    }
+
+    @Test
+    void testAssignAdjacent() {
+        assertEquals(Arrays.asList("5A", "5B", "5C"), seatMap.assignAdjacent(1, 3));
+        assertEquals(Arrays.asList("5D", "5E"), seatMap.assignAdjacent(1, 2));
+        assertEquals(Arrays.asList("6A", "6B", "6C", "6D"), seatMap.assignAdjacent(1, 4));
+        assertNull(seatMap.assignAdjacent(1, 2));
+        assertEquals("5F", seatMap.assign(1));
+        assertNull(seatMap.assignAdjacent(2, 5));
+
+        assertEquals(Arrays.asList("3A", "3B"), seatMap.assignAdjacent(2, 2));
+        seatMap.release("3B");
+        assertEquals(Arrays.asList("3C", "3D"), seatMap.assignAdjacent(2, 2));
+        assertEquals(Arrays.asList("4A", "4B", "4C"), seatMap.assignAdjacent(2, 3));
+    }
+
+    @Test
+    void testRelease() {
+        assertEquals("1A", seatMap.assign(3));
+        assertTrue(seatMap.release("1A"));
+        assertFalse(seatMap.release("1A"));
+        assertFalse(seatMap.release("6E"));
+        assertFalse(seatMap.release("99A"));
+        assertFalse(seatMap.release(null));
+        assertEquals(0, seatMap.getTakenSeats(3));
+        assertEquals("1A", seatMap.assign(3));
+    }
+
+    @Test
+    void testReserve() {
+        assertTrue(seatMap.reserve("5A"));
+        assertFalse(seatMap.reserve("5A"));
+        assertFalse(seatMap.reserve("6E"));
+        assertFalse(seatMap.reserve(null));
+        assertTrue(seatMap.isTaken("5A"));
+        assertEquals(1, seatMap.getTakenSeats(1));
+        assertEquals("5F", seatMap.assign(1));
+    }
+
+    @Test
+    void testSetTakenSeatsAndToJson() {
+        seatMap.assign(1);
+        BitSet taken = new BitSet();
+        taken.set(1);
+        taken.set(20);
+        seatMap.setTakenSeats(1, taken);
+        assertFalse(seatMap.isTaken("5A"));
+        assertTrue(seatMap.isTaken("5B"));
+        assertEquals(1, seatMap.getTakenSeats(1));
+
+        JSONObject json = seatMap.toJson();
+        assertEquals(10, json.getInt("economy seats"));
+        assertEquals(8, json.getInt("business seats"));
+        assertEquals(6, json.getInt("first class seats"));
+        assertEquals(3, json.getJSONArray("taken").length());
+        assertEquals("Ag==", json.getJSONArray("taken").getString(0));
+        assertEquals("", json.getJSONArray("taken").getString(1));
+    }
+
+    @Test
+    void testFlightSeatMap() {
+        Flight flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 300, 200, 80, 20);
+        assertFalse(flight.toJson().has("seat map"));
+        SeatMap map = flight.getSeatMap();
+        assertSame(map, flight.getSeatMap());
+        assertEquals(200, map.getCapacity(1));
+        assertEquals(20, map.getCapacity(3));
+        map.assign(1);
+        assertTrue(flight.toJson().has("seat map"));
+    }
+}
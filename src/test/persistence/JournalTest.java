@@ -0,0 +1,260 @@
+package persistence;
+
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest extends JsonTest {
+
+    private static final String JOURNAL = "./data/testJournal.log";
+
+    private FlightSchedule flightSchedule;
+    private Flight flight;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        flightSchedule = new FlightSchedule();
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20);
+        flightSchedule.addFlight(flight);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    @Test
+    void testAppend() throws Exception {
+        Journal journal = new Journal(JOURNAL);
+        assertEquals(0, journal.getLastSequence());
+        assertEquals(1, journal.append(new JSONObject().put("op", "a")).get());
+        assertEquals(2, journal.append(new JSONObject().put("op", "b")).get());
+        journal.close();
+
+        List<String> lines = Files.readAllLines(Paths.get(JOURNAL));
+        assertEquals(2, lines.size());
+        assertEquals("b", new JSONObject(lines.get(1)).getString("op"));
+        assertEquals(2, new JSONObject(lines.get(1)).getLong("seq"));
+
+        journal = new Journal(JOURNAL);
+        assertEquals(2, journal.getLastSequence());
+        assertEquals(3, journal.append(new JSONObject().put("op", "c")).get());
+        journal.close();
+        CompletableFuture<Long> closed = journal.append(new JSONObject().put("op", "d"));
+        assertThrows(ExecutionException.class, closed::get);
+    }
+
+    @Test
+    void testTornLastLineIsDropped() throws Exception {
+        Journal journal = new Journal(JOURNAL);
+        journal.append(new JSONObject().put("op", "a")).get();
+        journal.close();
+        Files.write(Paths.get(JOURNAL), "{\"op\": \"b\", \"se".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        journal = new Journal(JOURNAL);
+        assertEquals(1, journal.getLastSequence());
+        assertEquals(2, journal.append(new JSONObject().put("op", "c")).get());
+        journal.close();
+        List<String> lines = Files.readAllLines(Paths.get(JOURNAL));
+        assertEquals(2, lines.size());
+        assertEquals("c", new JSONObject(lines.get(1)).getString("op"));
+    }
+
+    @Test
+    void testFailedBatchIsCutOff() throws Exception {
+        AtomicBoolean fail = new AtomicBoolean();
+        Journal journal = new Journal(JOURNAL) {
+            @Override
+            void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+                if (fail.get()) {
+                    buffer.limit(buffer.position() + buffer.remaining() / 2);
+                    super.writeFully(channel, buffer);
+                    throw new IOException("No space left on device");
+                }
+                super.writeFully(channel, buffer);
+            }
+        };
+        assertEquals(1, journal.append(new JSONObject().put("op", "a")).get());
+        fail.set(true);
+        CompletableFuture<Long> failed = journal.append(new JSONObject().put("op", "b"));
+        assertThrows(ExecutionException.class, failed::get);
+        fail.set(false);
+        assertEquals(3, journal.append(new JSONObject().put("op", "c")).get());
+        journal.close();
+
+        List<String> lines = Files.readAllLines(Paths.get(JOURNAL));
+        assertEquals(2, lines.size());
+        assertEquals("a", new JSONObject(lines.get(0)).getString("op"));
+        assertEquals("c", new JSONObject(lines.get(1)).getString("op"));
+    }
+
+    @Test
+    void testGroupCommit() throws Exception {
+        Journal journal = new Journal(JOURNAL);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    journal.append(new JSONObject().put("op", "x")).join();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        journal.close();
+
+        assertEquals(400, journal.getLastSequence());
+        assertTrue(journal.getSyncs() <= 400);
+        List<String> lines = Files.readAllLines(Paths.get(JOURNAL));
+        for (int i = 0; i < lines.size(); i++) {
+            assertEquals(i + 1, new JSONObject(lines.get(i)).getLong("seq"));
+        }
+    }
+
+    @Test
+    void testTruncateThrough() throws Exception {
+        Journal journal = new Journal(JOURNAL);
+        for (int i = 0; i < 5; i++) {
+            journal.append(new JSONObject().put("op", "x")).get();
+        }
+        journal.truncateThrough(3);
+        assertEquals(6, journal.append(new JSONObject().put("op", "y")).get());
+        journal.close();
+
+        List<String> lines = Files.readAllLines(Paths.get(JOURNAL));
+        assertEquals(4, lines.size());
+        assertEquals(3, new JSONObject(lines.get(0)).getLong("seq"));
+        assertEquals("y", new JSONObject(lines.get(3)).getString("op"));
+        assertFalse(Files.exists(Paths.get(JOURNAL + ".tmp")));
+
+        journal = new Journal(JOURNAL);
+        assertEquals(6, journal.getLastSequence());
+        journal.truncateThrough(6);
+        assertEquals(7, journal.append(new JSONObject().put("op", "z")).get());
+        journal.close();
+        assertEquals(2, Files.readAllLines(Paths.get(JOURNAL)).size());
+        journal = new Journal(JOURNAL);
+        assertEquals(7, journal.getLastSequence());
+        journal.close();
+    }
+
+    @Test
+    void testReplay() throws Exception {
+        Account account = new Account();
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.addPassenger("mary", mary);
+        Journal journal = new Journal(JOURNAL);
+        account.setJournal(journal);
+
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        assertTrue(account.signUp("christie", christie));
+        assertTrue(account.bookFlight(christie, flight, 3));
+        assertTrue(account.bookFlight(mary, flight, 1));
+        christie.setLastName("Leung-Smith");
+        account.replacePassenger("christie", christie);
+        assertTrue(account.changeEmail("christie", "c@gmail.com"));
+        assertTrue(account.cancelFlight(mary, flight.getId()));
+        account.deletePassenger("mary");
+        journal.close();
+        assertEquals(7, journal.getLastSequence());
+
+        FlightSchedule replayedSchedule = new FlightSchedule();
+        Flight replayedFlight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20);
+        replayedFlight.setId(flight.getId().toString());
+        replayedSchedule.addFlight(replayedFlight);
+        Account replayed = new Account();
+        Passenger replayedMary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        replayedMary.setId(mary.getId().toString());
+        replayed.addPassenger("mary", replayedMary);
+        assertEquals(7, new JsonReader(JOURNAL).replayJournal(replayed, replayedSchedule));
+
+        assertEquals(1, replayed.size());
+        assertNull(replayed.retrievePassenger("mary"));
+        assertNull(replayed.retrievePassenger("christie"));
+        Passenger passenger = replayed.retrievePassenger("c@gmail.com");
+        checkPassenger(passenger, "Christie", "Leung-Smith", "c@gmail.com");
+        assertEquals(christie.getId(), passenger.getId());
+        assertEquals(LocalDate.of(2003, 1, 1), passenger.getDateOfBirth());
+        assertTrue(passenger.hasFlight(replayedFlight));
+        assertEquals(19, replayedFlight.getAvailableFirstClassSeats());
+        assertEquals(200, replayedFlight.getAvailableEconomySeats());
+        assertEquals(0, new JsonReader("./data/noSuchJournal.log").replayJournal(replayed, replayedSchedule));
+    }
+
+    @Test
+    void testReplayKeepsSeatNumbersAndPromotions() throws Exception {
+        Account account = new Account();
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        Passenger bob = new Passenger("Bob", "Ross", "bob", "pw", LocalDate.of(2000, 1, 1), "111");
+        Journal journal = new Journal(JOURNAL);
+        account.setJournal(journal);
+        assertTrue(account.signUp("christie", christie));
+        assertTrue(account.signUp("mary", mary));
+        assertTrue(account.signUp("bob", bob));
+
+        flight.setAvailableFirstClassSeats(2);
+        assertTrue(flight.getSeatMap().reserve("1A"));
+        assertTrue(account.bookFlight(christie, flight, 3));
+        assertTrue(account.bookFlight(bob, flight, 3));
+        assertTrue(account.getCoordinator().joinWaitlist(mary, flight, 3));
+        assertFalse(mary.hasFlight(flight));
+        String seatNumber = christie.getBookedFlight(flight.getId()).getSeatNumber();
+        assertNotEquals("1A", seatNumber);
+        assertTrue(account.cancelFlight(christie, flight.getId()));
+        assertEquals(seatNumber, mary.getBookedFlight(flight.getId()).getSeatNumber());
+        journal.close();
+        assertEquals(7, journal.getLastSequence());
+
+        FlightSchedule replayedSchedule = new FlightSchedule();
+        Flight replayedFlight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20);
+        replayedFlight.setId(flight.getId().toString());
+        replayedFlight.setAvailableFirstClassSeats(2);
+        replayedSchedule.addFlight(replayedFlight);
+        Account replayed = new Account();
+        assertEquals(7, new JsonReader(JOURNAL).replayJournal(replayed, replayedSchedule));
+
+        assertFalse(replayed.retrievePassenger("christie").hasFlight(replayedFlight));
+        assertEquals(seatNumber, replayed.retrievePassenger("mary").getBookedFlight(flight.getId())
+                .getSeatNumber());
+        assertEquals(bob.getBookedFlight(flight.getId()).getSeatNumber(),
+                replayed.retrievePassenger("bob").getBookedFlight(flight.getId()).getSeatNumber());
+        assertTrue(replayedFlight.getSeatMap().isTaken(seatNumber));
+        assertFalse(replayedFlight.getSeatMap().isTaken("1A"));
+        assertEquals(0, replayedFlight.getAvailableFirstClassSeats());
+    }
+}
@@ -3,8 +3,18 @@ package persistence;
 import model.*;
 import org.junit.jupiter.api.Test;
 
+import org.json.JSONObject;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -14,7 +24,7 @@ class JsonReaderTest extends JsonTest {
     void testAccountReaderNonExistentFile() {
         JsonReader reader = new JsonReader("./data/noSuchFile.json");
         try {
-            Account account = reader.readAccounts();
+            Account account = reader.readAccounts(new FlightSchedule());
             fail("IOException expected");
         } catch (IOException e) {
             // pass
@@ -36,7 +46,7 @@ class JsonReaderTest extends JsonTest {
     void testReaderEmptyAccount() {
         JsonReader reader = new JsonReader("./data/testEmptyAccounts.json");
         try {
-            Account account = reader.readAccounts();
+            Account account = reader.readAccounts(new FlightSchedule());
         } catch (IOException e) {
             fail("Couldn't read from file");
         }
@@ -56,12 +66,14 @@ class JsonReaderTest extends JsonTest {
     void testReaderGeneralAccounts() {
         JsonReader reader = new JsonReader("./data/testAccounts.json");
         try {
-            Account account = reader.readAccounts();
+            FlightSchedule flightSchedule = new JsonReader("./data/testFlights.json").readFlights();
+            Account account = reader.readAccounts(flightSchedule);
             Passenger passenger = account.retrievePassenger("christie");
             checkPassenger(passenger, "Christie", "Leung", "christie");
             List<BookedFlight> bookedFlights = passenger.getBookedFlights();
             assertEquals(1, bookedFlights.size());
             assertEquals(246, bookedFlights.get(0).getFlight().getFlightNumber());
+            assertSame(flightSchedule.getFlightsByDestination("YVR", "YEG").get(0), bookedFlights.get(0).getFlight());
         } catch (IOException e) {
             fail("Couldn't read from file");
         }
@@ -81,4 +93,134 @@ class JsonReaderTest extends JsonTest {
             fail("Couldn't read from file");
         }
     }
+
+    @Test
+    void testReaderMigratesEmbeddedFlights() {
+        try {
+            FlightSchedule flightSchedule = new JsonReader("./data/testFlights.json").readFlights();
+            int scheduled = flightSchedule.getFlightSchedule().size();
+            Account account = new JsonReader("./data/testAccounts.json").readAccounts(flightSchedule);
+            Flight flight = account.retrievePassenger("christie").getBookedFlights().get(0).getFlight();
+            checkFlight(flight, "AC", 246, "YVR", "YEG");
+            assertSame(flightSchedule.getFlight(flight.getId()), flight);
+            assertEquals(scheduled, flightSchedule.getFlightSchedule().size());
+            assertFalse(account.retrievePassenger("christie").toJson().getJSONArray("booked flights")
+                    .getJSONObject(0).has("flight"));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderDropsEmbeddedFlightsMissingFromSchedule() {
+        EventLog.getInstance().clear();
+        try {
+            FlightSchedule flightSchedule = new FlightSchedule();
+            Account account = new JsonReader("./data/testAccounts.json").readAccounts(flightSchedule);
+            assertTrue(account.retrievePassenger("christie").getBookedFlights().isEmpty());
+            assertTrue(flightSchedule.getFlightSchedule().isEmpty());
+            boolean logged = false;
+            for (Event e : EventLog.getInstance()) {
+                logged |= e.toString().endsWith("Dropped booking of Flight AC246 which is no longer scheduled.");
+            }
+            assertTrue(logged);
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderDropsBookingsOfMissingFlights() {
+        JsonReader reader = new JsonReader("./data/testAccounts.json");
+        try {
+            FlightSchedule flightSchedule = new JsonReader("./data/testFlights.json").readFlights();
+            Account account = reader.readAccounts(flightSchedule);
+            String file = tempFile("testNormalizedAccounts");
+            JsonWriter writer = new JsonWriter(file);
+            writer.open();
+            writer.write(account);
+            writer.close();
+
+            account = new JsonReader(file).readAccounts(new FlightSchedule());
+            assertTrue(account.retrievePassenger("christie").getBookedFlights().isEmpty());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderSizesSeatMapToCapacity() {
+        Flight flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 13, 10, 2, 1);
+        assertTrue(flight.tryBook(1));
+        assertTrue(flight.tryBook(1));
+        FlightSchedule flightSchedule = new FlightSchedule();
+        flightSchedule.addFlight(flight);
+        try {
+            String file = tempFile("testPartlyBookedFlights");
+            JsonWriter writer = new JsonWriter(file);
+            writer.open();
+            writer.write(flightSchedule);
+            writer.close();
+
+            Flight restored = new JsonReader(file).readFlights().getFlight(flight.getId());
+            assertEquals(10, restored.getSeatCapacity(1));
+            assertEquals(8, restored.getAvailableEconomySeats());
+            checkRebooking(restored);
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderSizesSeatMapOfOlderFiles() {
+        Flight flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 13, 10, 2, 1);
+        assertTrue(flight.tryBook(1));
+        assertTrue(flight.tryBook(1));
+        JSONObject json = flight.toJson();
+        json.remove("economy capacity");
+        json.remove("business capacity");
+        json.remove("first class capacity");
+        try {
+            String file = tempFile("testOlderFlights");
+            Files.write(Paths.get(file), new JSONObject().put("flights", List.of(json)).toString()
+                    .getBytes(StandardCharsets.UTF_8));
+
+            Flight restored = new JsonReader(file).readFlights().getFlight(flight.getId());
+            assertEquals(10, restored.getSeatCapacity(1));
+            assertEquals(4, restored.getSeatCapacity(2));
+            checkRebooking(restored);
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    // EFFECTS: books every economy seat left on the flight, gives back the two taken before it was saved,
+    //          cancels one booking and books the three freed seats again, checking that every booking gets a
+    //          seat number of its own
+    private void checkRebooking(Flight flight) {
+        Account account = new Account();
+        List<Passenger> passengers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            passengers.add(new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), "000"));
+        }
+        for (int i = 0; i < 8; i++) {
+            assertTrue(account.bookFlight(passengers.get(i), flight, 1));
+        }
+        flight.release(1);
+        flight.release(1);
+        assertTrue(account.cancelFlight(passengers.get(0), flight.getId()));
+        assertTrue(account.bookFlight(passengers.get(8), flight, 1));
+        assertTrue(account.bookFlight(passengers.get(9), flight, 1));
+        assertTrue(account.bookFlight(passengers.get(0), flight, 1));
+        assertEquals(0, flight.getAvailableEconomySeats());
+
+        Set<String> seatNumbers = new HashSet<>();
+        for (Passenger p : passengers) {
+            String seatNumber = p.getBookedFlight(flight.getId()).getSeatNumber();
+            assertNotNull(seatNumber);
+            assertTrue(seatNumbers.add(seatNumber));
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package persistence;
+
+import model.*;
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamReaderTest extends JsonTest {
+
+    private static final String STREAMED = "./data/testStreamed.json";
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(STREAMED));
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        JsonStreamReader reader = new JsonStreamReader("./data/noSuchFile.json");
+        assertThrows(IOException.class, () -> reader.readAccounts(new FlightSchedule()));
+        assertThrows(IOException.class, reader::readFlights);
+    }
+
+    @Test
+    void testReaderEmpty() throws IOException {
+        Files.write(Paths.get(STREAMED), "{\"accounts\": []}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(0, new JsonStreamReader(STREAMED).readAccounts(new FlightSchedule()).size());
+        Files.write(Paths.get(STREAMED), "{}".getBytes(StandardCharsets.UTF_8));
+        assertTrue(new JsonStreamReader(STREAMED).readFlights().getFlightsByDestination("YVR", "YEG").isEmpty());
+    }
+
+    @Test
+    void testReaderGeneralAccounts() throws IOException {
+        FlightSchedule flightSchedule = new JsonStreamReader("./data/testFlights.json").readFlights();
+        Account account = new JsonStreamReader("./data/testAccounts.json").readAccounts(flightSchedule);
+        Passenger passenger = account.retrievePassenger("christie");
+        checkPassenger(passenger, "Christie", "Leung", "christie");
+        List<BookedFlight> bookedFlights = passenger.getBookedFlights();
+        assertEquals(1, bookedFlights.size());
+        assertEquals(246, bookedFlights.get(0).getFlight().getFlightNumber());
+        assertSame(flightSchedule.getFlightsByDestination("YVR", "YEG").get(0), bookedFlights.get(0).getFlight());
+        assertEquals(new JsonReader("./data/testAccounts.json").readAccounts(new FlightSchedule()).size(),
+                account.size());
+    }
+
+    @Test
+    void testReaderGeneralFlights() throws IOException {
+        FlightSchedule flightSchedule = new JsonStreamReader("./data/testFlights.json").readFlights();
+        assertEquals(1, flightSchedule.getFlightsByDestination("YVR", "YEG").size());
+        assertEquals(1, flightSchedule.getFlightsByDestination("YVR", "LAX").size());
+        assertEquals(1, flightSchedule.getFlightsByDestination("YVR", "YYZ").size());
+        Flight flight = flightSchedule.getFlightsByDestination("YVR", "LAX").get(0);
+        checkFlight(flight, "AC", 123, "YVR", "LAX");
+    }
+
+    @Test
+    void testReaderSnapshot() throws IOException {
+        Flight flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 300, 200, 80, 20);
+        FlightSchedule flightSchedule = new FlightSchedule();
+        flightSchedule.addFlight(flight);
+        Passenger passenger = new Passenger("Mary", "Smith", "mary", "pw", LocalDate.of(2000, 10, 11), "778");
+        passenger.addBookedFlight(flight, 3);
+        String seatNumber = passenger.getBookedFlights().get(0).getSeatNumber();
+
+        Files.write(Paths.get(STREAMED), flightSchedule.toJson().put("journal sequence", 42).toString(4)
+                .getBytes(StandardCharsets.UTF_8));
+        JsonStreamReader reader = new JsonStreamReader(STREAMED);
+        FlightSchedule readSchedule = reader.readFlights();
+        Flight read = readSchedule.getFlight(flight.getId());
+        assertEquals(42, reader.getJournalSequence());
+        assertEquals(19, read.getAvailableFirstClassSeats());
+        assertTrue(read.getSeatMap().isTaken(seatNumber));
+
+        Account account = new Account();
+        account.addPassenger("mary", passenger);
+        Files.write(Paths.get(STREAMED), account.toJson().toString().getBytes(StandardCharsets.UTF_8));
+        Passenger readPassenger = reader.readAccounts(readSchedule).retrievePassenger("mary");
+        assertEquals(0, reader.getJournalSequence());
+        checkPassenger(readPassenger, "Mary", "Smith", "mary");
+        assertEquals(passenger.getId(), readPassenger.getId());
+        assertEquals(seatNumber, readPassenger.getBookedFlights().get(0).getSeatNumber());
+        assertSame(read, readPassenger.getBookedFlights().get(0).getFlight());
+    }
+
+    @Test
+    void testReaderMalformed() throws IOException {
+        Files.write(Paths.get(STREAMED), "{\"flights\": [{\"uuid\": \"x\"".getBytes(StandardCharsets.UTF_8));
+        assertThrows(JSONException.class, () -> new JsonStreamReader(STREAMED).readFlights());
+        Files.write(Paths.get(STREAMED), "[]".getBytes(StandardCharsets.UTF_8));
+        assertThrows(JSONException.class, () -> new JsonStreamReader(STREAMED).readAccounts(new FlightSchedule()));
+    }
+}
@@ -0,0 +1,121 @@
+package persistence;
+
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonStreamWriterTest extends JsonTest {
+
+    private static final String STREAMED = "./data/testStreamedWriter.json";
+
+    private Account account;
+    private FlightSchedule flightSchedule;
+    private Flight flight;
+
+    @BeforeEach
+    void runBefore() {
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG", 300, 200, 80, 20);
+        flightSchedule = new FlightSchedule();
+        flightSchedule.addFlight(flight);
+        flightSchedule.addFlight(new Flight("WS", 456, LocalDateTime.of(2022, 4, 25, 8, 0),
+                LocalDateTime.of(2022, 4, 25, 11, 0), "YVR", "LAX", 300, 200, 80, 20));
+        account = new Account();
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        mary.addBookedFlight(flight, 2);
+        account.addPassenger("mary", mary);
+        account.addPassenger("christie", new Passenger("Christie", "Leung", "christie", "pw",
+                LocalDate.of(2003, 1, 1), "000"));
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(STREAMED));
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        JsonStreamWriter writer = new JsonStreamWriter("./data/my\0illegal:fileName.json");
+        assertThrows(IOException.class, writer::open);
+    }
+
+    @Test
+    void testWriterAccounts() throws IOException {
+        for (boolean pretty : new boolean[] {true, false}) {
+            write(account, pretty, 0);
+            Account read = new JsonReader(STREAMED).readAccounts(flightSchedule);
+            assertEquals(2, read.size());
+            Passenger mary = read.retrievePassenger("mary");
+            checkPassenger(mary, "Mary", "Smith", "mary");
+            assertSame(flight, mary.getBookedFlights().get(0).getFlight());
+            assertEquals(account.retrievePassenger("mary").getBookedFlights().get(0).getSeatNumber(),
+                    mary.getBookedFlights().get(0).getSeatNumber());
+            checkPassenger(new JsonStreamReader(STREAMED).readAccounts(flightSchedule).retrievePassenger("christie"),
+                    "Christie", "Leung", "christie");
+            assertEquals(pretty, lines() > 1);
+        }
+    }
+
+    @Test
+    void testWriterFlights() throws IOException {
+        for (boolean pretty : new boolean[] {true, false}) {
+            JsonStreamWriter writer = new JsonStreamWriter(STREAMED, pretty);
+            writer.open();
+            writer.write(flightSchedule, 7);
+            writer.close();
+            JsonStreamReader reader = new JsonStreamReader(STREAMED);
+            FlightSchedule read = reader.readFlights();
+            assertEquals(7, reader.getJournalSequence());
+            checkFlight(read.getFlight(flight.getId()), "AC", 123, "YVR", "YEG");
+            assertEquals(79, read.getFlight(flight.getId()).getAvailableBusinessSeats());
+            assertEquals(1, read.getFlightsByDestination("YVR", "LAX").size());
+            assertTrue(flightSchedule.toJson().put("journal sequence", 7).similar(json()));
+            assertEquals(pretty, lines() > 1);
+        }
+    }
+
+    @Test
+    void testWriterEmpty() throws IOException {
+        for (boolean pretty : new boolean[] {true, false}) {
+            write(new Account(), pretty, 3);
+            assertEquals(0, new JsonReader(STREAMED).readAccounts(flightSchedule).size());
+            assertEquals(3, json().getLong("journal sequence"));
+            assertEquals(0, json().getJSONArray("accounts").length());
+        }
+        JsonStreamWriter writer = new JsonStreamWriter(STREAMED);
+        writer.open();
+        writer.write(new FlightSchedule());
+        writer.close();
+        assertFalse(json().has("journal sequence"));
+        assertEquals(0, json().getJSONArray("flights").length());
+    }
+
+    private void write(Account account, boolean pretty, long journalSequence) throws IOException {
+        JsonStreamWriter writer = new JsonStreamWriter(STREAMED, pretty);
+        writer.open();
+        writer.write(account, journalSequence);
+        writer.close();
+    }
+
+    private JSONObject json() throws IOException {
+        return new JSONObject(new String(Files.readAllBytes(Paths.get(STREAMED)), StandardCharsets.UTF_8));
+    }
+
+    private long lines() throws IOException {
+        return Files.readAllLines(Paths.get(STREAMED)).size();
+    }
+}
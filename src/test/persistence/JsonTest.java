@@ -3,9 +3,21 @@ package persistence;
 import model.Flight;
 import model.Passenger;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 class JsonTest {
+    // EFFECTS: creates an empty temporary file that is deleted on exit and returns its path,
+    //          so tests never overwrite the fixtures under ./data
+    protected String tempFile(String prefix) throws IOException {
+        Path path = Files.createTempFile(prefix, ".json");
+        path.toFile().deleteOnExit();
+        return path.toString();
+    }
+
     protected void checkPassenger(Passenger passenger, String firstName, String lastName, String emailAddress) {
         assertEquals(firstName, passenger.getFirstName());
         assertEquals(lastName, passenger.getLastName());
@@ -34,13 +34,14 @@ class JsonWriterTest extends JsonTest {
                     LocalDate.of(2000, 10, 11), "778");
             Account account = new Account();
             account.addPassenger("mary", p);
-            JsonWriter writer = new JsonWriter("./data/testEmptyAccounts.json");
+            String file = tempFile("testEmptyAccounts");
+            JsonWriter writer = new JsonWriter(file);
             writer.open();
             writer.write(account);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testEmptyAccounts.json");
-            account = reader.readAccounts();
+            JsonReader reader = new JsonReader(file);
+            account = reader.readAccounts(new FlightSchedule());
             Passenger passenger = account.retrievePassenger("mary");
             checkPassenger(p, passenger.getFirstName(), passenger.getLastName(), passenger.getEmailAddress());
         } catch (IOException e) {
@@ -56,12 +57,13 @@ class JsonWriterTest extends JsonTest {
                     300, 200, 80, 20);
             FlightSchedule flightSchedule = new FlightSchedule();
             flightSchedule.addFlight(f);
-            JsonWriter writer = new JsonWriter("./data/testEmptyFlights.json");
+            String file = tempFile("testEmptyFlights");
+            JsonWriter writer = new JsonWriter(file);
             writer.open();
             writer.write(flightSchedule);
             writer.close();
 
-            JsonReader reader = new JsonReader("./data/testEmptyFlights.json");
+            JsonReader reader = new JsonReader(file);
             flightSchedule = reader.readFlights();
             assertEquals(1, flightSchedule.getFlightsByDestination("YVR", "YEG").size());
             checkFlight(flightSchedule.getFlightsByDestination("YVR", "YEG").get(0),
@@ -76,20 +78,24 @@ class JsonWriterTest extends JsonTest {
         try {
 
             JsonReader reader = new JsonReader("./data/testAccounts.json");
+            FlightSchedule fs = new JsonReader("./data/testFlights.json").readFlights();
             Passenger p = new Passenger("Mary", "Smith", "mary", "mary",
                     LocalDate.of(2000, 10, 11), "778");
-            Account account = reader.readAccounts();
+            Account account = reader.readAccounts(fs);
             account.addPassenger("mary", p);
-            JsonWriter writer = new JsonWriter("./data/testAccounts.json");
+            String file = tempFile("testAccounts");
+            JsonWriter writer = new JsonWriter(file);
             writer.open();
             writer.write(account);
             writer.close();
 
-            account = reader.readAccounts();
+            account = new JsonReader(file).readAccounts(fs);
             Passenger passenger = account.retrievePassenger("mary");
             checkPassenger(p, passenger.getFirstName(), passenger.getLastName(), passenger.getEmailAddress());
             Passenger passenger1 = account.retrievePassenger("christie");
             checkPassenger(passenger1, "Christie", "Leung", "christie");
+            Flight booked = passenger1.getBookedFlights().get(0).getFlight();
+            assertSame(fs.getFlight(booked.getId()), booked);
         } catch (IOException e) {
             fail("Exception should not have been thrown");
         }
@@ -105,12 +111,13 @@ class JsonWriterTest extends JsonTest {
                     300, 200, 80, 20);
             FlightSchedule fs = reader.readFlights();
             fs.addFlight(flight);
-            JsonWriter writer = new JsonWriter("./data/testFlights.json");
+            String file = tempFile("testFlights");
+            JsonWriter writer = new JsonWriter(file);
             writer.open();
             writer.write(fs);
             writer.close();
 
-            fs = reader.readFlights();
+            fs = new JsonReader(file).readFlights();
             Flight f1 = fs.getFlightsByDestination("YVR", "ICN").get(0);
             checkFlight(f1, "AC", 187, "YVR", "ICN");
             Flight f2 = fs.getFlightsByDestination("YVR", "YEG").get(0);
@@ -119,4 +126,42 @@ class JsonWriterTest extends JsonTest {
             fail("Exception should not have been thrown");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWriterSeatMap() {
+        try {
+            Flight f = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                    LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                    300, 200, 80, 20);
+            Passenger p = new Passenger("Mary", "Smith", "mary", "mary",
+                    LocalDate.of(2000, 10, 11), "778");
+            p.addBookedFlight(f, 3);
+            FlightSchedule flightSchedule = new FlightSchedule();
+            flightSchedule.addFlight(f);
+            Account account = new Account();
+            account.addPassenger("mary", p);
+            String flightsFile = tempFile("testSeatMapFlights");
+            String accountsFile = tempFile("testSeatMapAccounts");
+            JsonWriter writer = new JsonWriter(flightsFile);
+            writer.open();
+            writer.write(flightSchedule);
+            writer.close();
+            writer = new JsonWriter(accountsFile);
+            writer.open();
+            writer.write(account);
+            writer.close();
+
+            FlightSchedule fs = new JsonReader(flightsFile).readFlights();
+            Flight flight = fs.getFlight(f.getId());
+            assertTrue(flight.getSeatMap().isTaken("1A"));
+            assertEquals(1, flight.getSeatMap().getTakenSeats(3));
+            assertEquals(200, flight.getSeatMap().getCapacity(1));
+            Passenger passenger = new JsonReader(accountsFile).readAccounts(fs)
+                    .retrievePassenger("mary");
+            assertEquals("1A", passenger.getBookedFlight(f.getId()).getSeatNumber());
+            assertSame(flight, passenger.getBookedFlight(f.getId()).getFlight());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
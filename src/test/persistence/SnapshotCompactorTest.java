@@ -0,0 +1,308 @@
+package persistence;
+
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import model.SeatHold;
+import model.SeatHoldManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCompactorTest extends JsonTest {
+
+    private static final String JOURNAL = "./data/testCompactorJournal.log";
+    private static final String ACCOUNTS = "./data/testCompactorAccounts.json";
+    private static final String FLIGHTS = "./data/testCompactorFlights.json";
+
+    private Account account;
+    private FlightSchedule flightSchedule;
+    private Flight flight;
+    private Journal journal;
+    private SnapshotCompactor compactor;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        deleteFiles();
+        flightSchedule = new FlightSchedule();
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 20);
+        flightSchedule.addFlight(flight);
+        account = new Account();
+        journal = new Journal(JOURNAL);
+        account.setJournal(journal);
+        compactor = new SnapshotCompactor(account, flightSchedule, journal, ACCOUNTS, FLIGHTS);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        compactor.stop();
+        journal.close();
+        deleteFiles();
+    }
+
+    @Test
+    void testCompactAndRestart() throws IOException {
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.signUp("christie", christie);
+        account.signUp("mary", mary);
+        account.bookFlight(christie, flight, 3);
+        assertEquals(3, compactor.compact());
+        assertEquals(3, compactor.compact());
+        assertEquals(1, compactor.getCompactions());
+        assertEquals(1, Files.readAllLines(Paths.get(JOURNAL)).size());
+
+        account.bookFlight(mary, flight, 1);
+        account.changeEmail("christie", "c@gmail.com");
+        journal.close();
+
+        JsonReader flightsReader = new JsonReader(FLIGHTS);
+        FlightSchedule restoredSchedule = flightsReader.readFlights();
+        JsonReader accountsReader = new JsonReader(ACCOUNTS);
+        Account restoredAccount = accountsReader.readAccounts(restoredSchedule);
+        assertEquals(3, accountsReader.getJournalSequence());
+        assertEquals(3, flightsReader.getJournalSequence());
+        assertEquals(5, new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule,
+                accountsReader.getJournalSequence(), flightsReader.getJournalSequence()));
+
+        Flight restoredFlight = restoredSchedule.getFlight(flight.getId());
+        assertEquals(19, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(199, restoredFlight.getAvailableEconomySeats());
+        assertEquals(2, restoredFlight.getSeatMap().getTakenSeats(3) + restoredFlight.getSeatMap().getTakenSeats(1));
+        assertEquals(2, restoredAccount.size());
+        assertNull(restoredAccount.retrievePassenger("christie"));
+        checkPassenger(restoredAccount.retrievePassenger("c@gmail.com"), "Christie", "Leung", "c@gmail.com");
+        assertTrue(restoredAccount.retrievePassenger("c@gmail.com").hasFlight(restoredFlight));
+        assertTrue(restoredAccount.retrievePassenger("mary").hasFlight(restoredFlight));
+    }
+
+    @Test
+    void testReplayOnlyAfterEachSnapshot() throws IOException {
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        account.signUp("christie", christie);
+        compactor.compact();
+
+        // flights saved after the booking, accounts before it
+        account.bookFlight(christie, flight, 3);
+        String seatNumber = christie.getBookedFlights().get(0).getSeatNumber();
+        write(FLIGHTS, flightSchedule);
+        FlightSchedule restoredSchedule = new JsonReader(FLIGHTS).readFlights();
+        Flight restoredFlight = restoredSchedule.getFlight(flight.getId());
+        Account restoredAccount = new JsonReader(ACCOUNTS).readAccounts(restoredSchedule);
+        new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule, 1, 2);
+        assertEquals(19, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(1, restoredFlight.getSeatMap().getTakenSeats(3));
+        Passenger restored = restoredAccount.retrievePassenger("christie");
+        assertTrue(restored.hasFlight(restoredFlight));
+        assertEquals(seatNumber, restored.getBookedFlights().get(0).getSeatNumber());
+
+        // accounts saved after the cancellation, flights before it
+        account.cancelFlight(christie, flight.getId());
+        write(ACCOUNTS, account);
+        restoredSchedule = new JsonReader(FLIGHTS).readFlights();
+        restoredFlight = restoredSchedule.getFlight(flight.getId());
+        restoredAccount = new JsonReader(ACCOUNTS).readAccounts(restoredSchedule);
+        assertTrue(restoredFlight.getSeatMap().isTaken(seatNumber));
+        new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule, 3, 2);
+        assertEquals(20, restoredFlight.getAvailableFirstClassSeats());
+        assertFalse(restoredFlight.getSeatMap().isTaken(seatNumber));
+        assertFalse(restoredAccount.retrievePassenger("christie").hasFlight(restoredFlight));
+    }
+
+    @Test
+    void testStartAndStop() throws Exception {
+        account.signUp("mary", new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778"));
+        compactor.start(Duration.ofMillis(10));
+        for (int i = 0; i < 200 && compactor.getCompactions() == 0; i++) {
+            Thread.sleep(10);
+        }
+        compactor.stop();
+        assertEquals(1, compactor.getCompactions());
+        FlightSchedule restoredSchedule = new JsonReader(FLIGHTS).readFlights();
+        assertNotNull(restoredSchedule.getFlight(flight.getId()));
+        assertEquals(1, new JsonReader(ACCOUNTS).readAccounts(restoredSchedule).size());
+    }
+
+    @Test
+    void testViewIgnoresLaterChanges() throws IOException {
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.signUp("christie", christie);
+        account.signUp("mary", mary);
+        account.bookFlight(christie, flight, 3);
+        SnapshotView view = account.capture(() -> new SnapshotView(account, flightSchedule, 3));
+        account.bookFlight(mary, flight, 3);
+        account.cancelFlight(christie, flight.getId());
+
+        try (JsonStreamWriter writer = new JsonStreamWriter(FLIGHTS)) {
+            writer.open();
+            writer.writeFlights(view);
+        }
+        try (JsonStreamWriter writer = new JsonStreamWriter(ACCOUNTS)) {
+            writer.open();
+            writer.writeAccounts(view);
+        }
+        FlightSchedule restoredSchedule = new JsonReader(FLIGHTS).readFlights();
+        Flight restoredFlight = restoredSchedule.getFlight(flight.getId());
+        Account restoredAccount = new JsonReader(ACCOUNTS).readAccounts(restoredSchedule);
+        assertEquals(19, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(1, restoredFlight.getSeatMap().getTakenSeats(3));
+        assertTrue(restoredAccount.retrievePassenger("christie").hasFlight(restoredFlight));
+        assertFalse(restoredAccount.retrievePassenger("mary").hasFlight(restoredFlight));
+
+        new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule, 3, 3);
+        assertEquals(19, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(1, restoredFlight.getSeatMap().getTakenSeats(3));
+        assertFalse(restoredAccount.retrievePassenger("christie").hasFlight(restoredFlight));
+        assertTrue(restoredAccount.retrievePassenger("mary").hasFlight(restoredFlight));
+    }
+
+    @Test
+    void testViewKeepsPassengersAsCaptured() throws IOException {
+        Passenger christie = new Passenger("Christie", "Leung", "christie", "pw", LocalDate.of(2003, 1, 1), "000");
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.signUp("christie", christie);
+        account.signUp("mary", mary);
+        account.bookFlight(christie, flight, 3);
+        SnapshotView view = account.capture(() -> new SnapshotView(account, flightSchedule, 3));
+        account.deletePassenger("mary");
+        assertTrue(account.changeEmail("christie", "mary"));
+
+        try (JsonStreamWriter writer = new JsonStreamWriter(FLIGHTS)) {
+            writer.open();
+            writer.writeFlights(view);
+        }
+        try (JsonStreamWriter writer = new JsonStreamWriter(ACCOUNTS)) {
+            writer.open();
+            writer.writeAccounts(view);
+        }
+        FlightSchedule restoredSchedule = new JsonReader(FLIGHTS).readFlights();
+        Account restoredAccount = new JsonReader(ACCOUNTS).readAccounts(restoredSchedule);
+        assertEquals(2, restoredAccount.size());
+        assertEquals(christie.getId(), restoredAccount.retrievePassenger("christie").getId());
+
+        new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule, 3, 3);
+        assertEquals(1, restoredAccount.size());
+        Passenger restored = restoredAccount.retrievePassenger("mary");
+        assertEquals(christie.getId(), restored.getId());
+        assertTrue(restored.hasFlight(restoredSchedule.getFlight(flight.getId())));
+    }
+
+    @Test
+    void testViewDoesNotCreateSeatMaps() throws IOException {
+        Flight other = new Flight("AC", 124, LocalDateTime.of(2022, 4, 25, 18, 0),
+                LocalDateTime.of(2022, 4, 25, 20, 25), "YVR", "YYZ", 300, 200, 80, 20);
+        flightSchedule.addFlight(other);
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.signUp("mary", mary);
+        account.bookFlight(mary, flight, 1);
+        assertEquals(2, compactor.compact());
+        assertFalse(other.hasSeatMap());
+
+        SnapshotView view = account.capture(() -> new SnapshotView(account, flightSchedule, 2));
+        account.bookFlight(mary, other, 1);
+        assertTrue(view.toJson(flight).has("seat map"));
+        assertFalse(view.toJson(other).has("seat map"));
+        Flight restored = new JsonReader(FLIGHTS).readFlights().getFlight(other.getId());
+        assertFalse(restored.hasSeatMap());
+    }
+
+    @Test
+    void testHeldSeatsAreAvailableInSnapshots() throws IOException {
+        AtomicLong now = new AtomicLong();
+        SeatHoldManager holds = new SeatHoldManager(account.getCoordinator(), Duration.ofSeconds(1), 8, now::get);
+        Passenger mary = new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778");
+        account.signUp("mary", mary);
+        SeatHold confirmed = holds.hold(flight, 3, Duration.ofSeconds(5));
+        SeatHold expired = holds.hold(flight, 2, Duration.ofSeconds(5));
+        assertEquals(1, account.getCoordinator().getHeldSeats(flight, 3));
+        assertEquals(1, compactor.compact());
+
+        assertTrue(holds.confirm(confirmed, mary));
+        now.set(10_000);
+        assertEquals(1, holds.advance());
+        assertEquals(0, account.getCoordinator().getHeldSeats(flight, 2));
+        assertEquals(0, account.getCoordinator().getHeldSeats(flight, 3));
+        assertEquals(19, flight.getAvailableFirstClassSeats());
+        assertEquals(80, flight.getAvailableBusinessSeats());
+
+        JsonReader flightsReader = new JsonReader(FLIGHTS);
+        FlightSchedule restoredSchedule = flightsReader.readFlights();
+        Flight restoredFlight = restoredSchedule.getFlight(flight.getId());
+        assertEquals(20, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(80, restoredFlight.getAvailableBusinessSeats());
+        JsonReader accountsReader = new JsonReader(ACCOUNTS);
+        Account restoredAccount = accountsReader.readAccounts(restoredSchedule);
+        new JsonReader(JOURNAL).replayJournal(restoredAccount, restoredSchedule, accountsReader.getJournalSequence(),
+                flightsReader.getJournalSequence());
+        assertEquals(19, restoredFlight.getAvailableFirstClassSeats());
+        assertEquals(80, restoredFlight.getAvailableBusinessSeats());
+        assertTrue(restoredAccount.retrievePassenger("mary").hasFlight(restoredFlight));
+    }
+
+    @Test
+    void testFailedCompactionLeavesNoTemporaryFiles() throws IOException {
+        String missing = "./data/noSuchDirectory/accounts.json";
+        SnapshotCompactor failing = new SnapshotCompactor(account, flightSchedule, journal, missing, FLIGHTS);
+        account.signUp("mary", new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778"));
+        assertThrows(IOException.class, failing::compact);
+        assertFalse(Files.exists(Paths.get(FLIGHTS + ".tmp")));
+        assertFalse(Files.exists(Paths.get(FLIGHTS)));
+        assertEquals(0, failing.getCompactions());
+        assertEquals(1, Files.readAllLines(Paths.get(JOURNAL)).size());
+    }
+
+    @Test
+    void testBackgroundFailureIsReported() throws Exception {
+        SnapshotCompactor failing = new SnapshotCompactor(account, flightSchedule, journal,
+                "./data/noSuchDirectory/accounts.json", FLIGHTS);
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+        failing.setFailureHandler(failures::add);
+        account.signUp("mary", new Passenger("Mary", "Smith", "mary", "mary", LocalDate.of(2000, 10, 11), "778"));
+        assertNull(failing.getLastFailure());
+        failing.start(Duration.ofMillis(10));
+        for (int i = 0; i < 200 && failures.isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+        failing.stop();
+        assertFalse(failures.isEmpty());
+        assertTrue(failing.getLastFailure() instanceof IOException);
+        assertEquals(0, failing.getCompactions());
+    }
+
+    private void write(String destination, Account account) throws IOException {
+        JsonWriter writer = new JsonWriter(destination);
+        writer.open();
+        writer.write(account);
+        writer.close();
+    }
+
+    private void write(String destination, FlightSchedule flightSchedule) throws IOException {
+        JsonWriter writer = new JsonWriter(destination);
+        writer.open();
+        writer.write(flightSchedule);
+        writer.close();
+    }
+
+    private void deleteFiles() throws IOException {
+        for (String file : new String[] {JOURNAL, ACCOUNTS, FLIGHTS}) {
+            Files.deleteIfExists(Paths.get(file));
+            Files.deleteIfExists(Paths.get(file + ".tmp"));
+        }
+    }
+}
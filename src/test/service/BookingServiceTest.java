@@ -0,0 +1,204 @@
+package service;
+
+import model.Account;
+import model.Flight;
+import model.FlightSchedule;
+import model.Passenger;
+import org.json.JSONObject;
+import persistence.Journal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingServiceTest {
+
+    private BookingService service;
+    private Account account;
+    private FlightSchedule flightSchedule;
+    private Flight flight;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        account = new Account();
+        account.addPassenger("c", new Passenger("C", "L", "c", "play", LocalDate.of(2003, 1, 1), "000"));
+        flightSchedule = new FlightSchedule();
+        flight = new Flight("AC", 123, LocalDateTime.of(2022, 4, 24, 18, 0),
+                LocalDateTime.of(2022, 4, 24, 20, 25), "YVR", "YEG",
+                300, 200, 80, 1);
+        flightSchedule.addFlight(flight);
+        service = new BookingService(account, flightSchedule, 0);
+        service.start();
+    }
+
+    @AfterEach
+    void runAfter() {
+        service.stop();
+    }
+
+    @Test
+    void testLogin() throws IOException {
+        JSONObject response = send("POST", "/login", "{\"email\": \"c\", \"password\": \"play\"}", 200);
+        assertFalse(response.getString("token").isEmpty());
+        assertEquals("C", response.getJSONObject("passenger").getString("first name"));
+
+        assertEquals("Invalid password! Please try again.",
+                send("POST", "/login", "{\"email\": \"c\", \"password\": \"x\"}", 401).getString("error"));
+        assertEquals("Credentials not found!",
+                send("POST", "/login", "{\"email\": \"x\", \"password\": \"x\"}", 401).getString("error"));
+        send("POST", "/login", "{\"email\": \"c\"", 400);
+        send("GET", "/login", null, 405);
+    }
+
+    @Test
+    void testSearch() throws IOException {
+        JSONObject response = send("GET", "/search?from=YVR&to=yeg", null, 200);
+        assertEquals(1, response.getJSONArray("flights").length());
+        assertEquals(flight.getId().toString(),
+                response.getJSONArray("flights").getJSONObject(0).getString("uuid"));
+        assertTrue(send("GET", "/search?from=YVR&to=YYZ", null, 200).getJSONArray("flights").isEmpty());
+        send("GET", "/search?from=YVR", null, 400);
+    }
+
+    @Test
+    void testBookAndCancel() throws IOException {
+        String token = login("c", "play");
+        String book = "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\", \"seat\": 3}";
+        assertEquals(3, send("POST", "/book", book, 200).getInt("seat"));
+        send("POST", "/book", book, 409);
+        assertEquals(0, flight.getAvailableFirstClassSeats());
+        assertTrue(account.retrievePassenger("c").hasFlight(flight));
+
+        String cancel = "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\"}";
+        send("POST", "/cancel", cancel, 200);
+        send("POST", "/cancel", cancel, 404);
+        assertEquals(1, flight.getAvailableFirstClassSeats());
+
+        send("POST", "/book", "{\"token\": \"x\", \"flight\": \"" + flight.getId() + "\", \"seat\": 1}", 401);
+        send("POST", "/book", "{\"token\": \"" + token + "\", \"flight\": \"x\", \"seat\": 1}", 400);
+        send("POST", "/book", "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\", \"seat\": 4}",
+                400);
+    }
+
+    @Test
+    void testConcurrentClientsNeverOverbook() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            account.addPassenger("p" + i, new Passenger("P", "" + i, "p" + i, "pw", LocalDate.of(2000, 1, 1), ""));
+            tokens.add(login("p" + i, "pw"));
+        }
+        flight.setAvailableBusinessSeats(20);
+
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (String token : tokens) {
+            statuses.add(clients.submit(() -> status("POST", "/book",
+                    "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\", \"seat\": 2}")));
+        }
+        int booked = 0;
+        for (Future<Integer> status : statuses) {
+            int code = status.get();
+            assertTrue(code == 200 || code == 409);
+            booked += code == 200 ? 1 : 0;
+        }
+        clients.shutdown();
+
+        assertEquals(20, booked);
+        assertEquals(0, flight.getAvailableBusinessSeats());
+    }
+
+    @Test
+    void testSessionsExpire() throws IOException {
+        service.stop();
+        AtomicLong clock = new AtomicLong(1_000_000);
+        service = new BookingService(account, flightSchedule, 0, Duration.ofMinutes(1), clock::get);
+        service.start();
+        String token = login("c", "play");
+        String cancel = "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\"}";
+        clock.addAndGet(50_000);
+        send("POST", "/cancel", cancel, 404);
+        clock.addAndGet(50_000);
+        send("POST", "/cancel", cancel, 404);
+        clock.addAndGet(60_000);
+        assertEquals("Please log in first.", send("POST", "/cancel", cancel, 401).getString("error"));
+        assertEquals(0, service.getSessions());
+
+        login("c", "play");
+        clock.addAndGet(120_000);
+        login("c", "play");
+        assertEquals(1, service.getSessions());
+    }
+
+    @Test
+    void testUnexpectedFailureAnswers500() throws IOException {
+        Path journalFile = Files.createTempFile("bookingServiceJournal", ".log");
+        Journal journal = new Journal(journalFile.toString());
+        journal.close();
+        account.setJournal(journal);
+        String token = login("c", "play");
+        String book = "{\"token\": \"" + token + "\", \"flight\": \"" + flight.getId() + "\", \"seat\": 1}";
+        assertEquals("Internal error.", send("POST", "/book", book, 500).getString("error"));
+        account.setJournal(null);
+        Files.deleteIfExists(journalFile);
+        assertEquals(200, status("GET", "/search?from=YVR&to=YEG", null));
+    }
+
+    // EFFECTS: logs in and returns the session token
+    private String login(String email, String password) throws IOException {
+        return send("POST", "/login", "{\"email\": \"" + email + "\", \"password\": \"" + password + "\"}", 200)
+                .getString("token");
+    }
+
+    // EFFECTS: sends the request, checks its status and returns its JSON response
+    private JSONObject send(String method, String path, String body, int expectedStatus) throws IOException {
+        HttpURLConnection connection = open(method, path, body);
+        assertEquals(expectedStatus, connection.getResponseCode());
+        InputStream in = expectedStatus == 200 ? connection.getInputStream() : connection.getErrorStream();
+        try (InputStream response = in) {
+            return new JSONObject(new String(response.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // EFFECTS: sends the request and returns its status
+    private int status(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = open(method, path, body);
+        int status = connection.getResponseCode();
+        InputStream in = status == 200 ? connection.getInputStream() : connection.getErrorStream();
+        in.readAllBytes();
+        in.close();
+        return status;
+    }
+
+    // EFFECTS: opens a connection to the service and sends the request
+    private HttpURLConnection open(String method, String path, String body) throws IOException {
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL("http://localhost:" + service.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+}